@@ -2,19 +2,28 @@ package com.blog.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.blog.common.ApiResponse;
-import com.blog.entity.Article;
-import com.blog.entity.Comment;
-import com.blog.entity.SiteStatistics;
 import com.blog.entity.User;
 import com.blog.dto.UserDTO;
-import com.blog.mapper.ArticleMapper;
-import com.blog.mapper.CommentMapper;
+import com.blog.exception.BusinessException;
 import com.blog.mapper.UserMapper;
+import com.blog.service.AccessLogIngestService;
+import com.blog.service.ArticleCacheService;
+import com.blog.service.CounterReconciliationService;
+import com.blog.service.DashboardSnapshotService;
+import com.blog.service.NotificationService;
+import com.blog.service.PasswordHashingService;
+import com.blog.service.SiteTotalsService;
 import com.blog.service.StatisticsService;
+import com.blog.service.TokenRevocationService;
+import com.blog.service.UserCacheService;
+import com.blog.service.UserInteractionService;
 import com.blog.service.UserService;
+import com.blog.service.UvSketchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,74 +44,175 @@ public class AdminController {
     private UserMapper userMapper;
 
     @Autowired
-    private ArticleMapper articleMapper;
+    private StatisticsService statisticsService;
 
     @Autowired
-    private CommentMapper commentMapper;
+    private ArticleCacheService articleCacheService;
 
     @Autowired
-    private StatisticsService statisticsService;
+    private AccessLogIngestService accessLogIngestService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UvSketchService uvSketchService;
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private SiteTotalsService siteTotalsService;
+
+    @Autowired
+    private UserInteractionService userInteractionService;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
 
     /**
      * 获取仪表盘统计数据
-     * 自动聚合最近7天的访问量数据
+     * 返回后台计算的最近一次快照（snapshotAgeMs为快照年龄），不在请求中聚合
      *
      * @return 统计数据
      */
     @GetMapping("/statistics")
     public ApiResponse<Map<String, Object>> getStatistics() {
-        Map<String, Object> stats = new HashMap<>();
+        return ApiResponse.success(dashboardSnapshotService.getDashboard());
+    }
 
-        // 自动聚合最近7天的统计数据
-        try {
-            statisticsService.aggregateRecentStatistics(7);
-        } catch (Exception e) {
-            // 聚合失败不影响返回已有数据
+    /**
+     * 手动刷新统计数据
+     *
+     * @return 成功响应
+     */
+    @PostMapping("/statistics/refresh")
+    public ApiResponse<Void> refreshStatistics() {
+        LocalDate today = LocalDate.now();
+        statisticsService.aggregateStatistics(today.minusDays(6), today, true);
+        dashboardSnapshotService.refreshNow();
+        return ApiResponse.success("统计数据刷新成功", null);
+    }
+
+    /**
+     * 查询日期区间内的全站UV（合并每日草图，适用于周、月UV）
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate   结束日期（包含）
+     * @return UV
+     */
+    @GetMapping("/statistics/uv")
+    public ApiResponse<Map<String, Object>> getSiteUv(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new BusinessException("开始日期不能晚于结束日期");
         }
+        Map<String, Object> result = new HashMap<>();
+        result.put("startDate", startDate);
+        result.put("endDate", endDate);
+        result.put("uv", uvSketchService.getSiteUv(startDate, endDate));
+        return ApiResponse.success(result);
+    }
 
-        // 总文章数
-        LambdaQueryWrapper<Article> articleQuery = new LambdaQueryWrapper<>();
-        articleQuery.eq(Article::getIsDeleted, 0);
-        long totalArticles = articleMapper.selectCount(articleQuery);
-        stats.put("totalArticles", totalArticles);
-
-        // 总用户数
-        LambdaQueryWrapper<User> userQuery = new LambdaQueryWrapper<>();
-        userQuery.eq(User::getIsDeleted, 0);
-        long totalUsers = userMapper.selectCount(userQuery);
-        stats.put("totalUsers", totalUsers);
-
-        // 总评论数
-        LambdaQueryWrapper<Comment> commentQuery = new LambdaQueryWrapper<>();
-        commentQuery.eq(Comment::getIsDeleted, 0);
-        long totalComments = commentMapper.selectCount(commentQuery);
-        stats.put("totalComments", totalComments);
-
-        // 总浏览量（所有文章的浏览量总和）
-        LambdaQueryWrapper<Article> viewQuery = new LambdaQueryWrapper<>();
-        viewQuery.eq(Article::getIsDeleted, 0);
-        List<Article> articles = articleMapper.selectList(viewQuery);
-        long totalViews = articles.stream()
-                .mapToLong(a -> a.getViewCount() != null ? a.getViewCount() : 0)
-                .sum();
-        stats.put("totalViews", totalViews);
-
-        // 最近7天的统计数据（用于趋势图）
-        List<SiteStatistics> recentStats = statisticsService.getRecentStatistics(7);
-        stats.put("recentStatistics", recentStats);
+    /**
+     * 查询日期区间内单篇文章的UV
+     *
+     * @param articleId 文章ID
+     * @param startDate 开始日期（包含）
+     * @param endDate   结束日期（包含）
+     * @return UV
+     */
+    @GetMapping("/statistics/articles/{articleId}/uv")
+    public ApiResponse<Map<String, Object>> getArticleUv(
+            @PathVariable Long articleId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new BusinessException("开始日期不能晚于结束日期");
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("articleId", articleId);
+        result.put("startDate", startDate);
+        result.put("endDate", endDate);
+        result.put("uv", uvSketchService.getArticleUv(articleId, startDate, endDate));
+        return ApiResponse.success(result);
+    }
 
+    /**
+     * 获取缓存统计数据（命中率、淘汰数、加载耗时等）
+     *
+     * @return 各缓存的统计数据
+     */
+    @GetMapping("/cache/stats")
+    public ApiResponse<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("article", articleCacheService.getStats());
+        stats.put("interaction", userInteractionService.getStats());
+        stats.put("user", userCacheService.getStats());
         return ApiResponse.success(stats);
     }
 
     /**
-     * 手动刷新统计数据
+     * 获取访问日志异步写入统计（队列长度、丢弃数、写入失败数等）
+     *
+     * @return 写入统计数据
+     */
+    @GetMapping("/access-log/ingest-stats")
+    public ApiResponse<Map<String, Object>> getAccessLogIngestStats() {
+        return ApiResponse.success(accessLogIngestService.getStats());
+    }
+
+    /**
+     * 获取通知扇出统计（队列长度、丢弃数、写入失败数等）
+     *
+     * @return 扇出统计数据
+     */
+    @GetMapping("/notifications/fanout-stats")
+    public ApiResponse<Map<String, Object>> getNotificationFanoutStats() {
+        return ApiResponse.success(notificationService.getFanoutStats());
+    }
+
+    /**
+     * 立即核对全站累计计数，有偏差时以源表为准修复
+     *
+     * @return 核对报告
+     */
+    @PostMapping("/totals/reconcile")
+    public ApiResponse<Map<String, Object>> reconcileSiteTotals() {
+        Map<String, Object> report = siteTotalsService.reconcile();
+        dashboardSnapshotService.markChanged();
+        return ApiResponse.success(report);
+    }
+
+    /**
+     * 在后台开始一次冗余计数核对（点赞、收藏、评论、标签计数）
      *
      * @return 成功响应
      */
-    @PostMapping("/statistics/refresh")
-    public ApiResponse<Void> refreshStatistics() {
-        statisticsService.aggregateRecentStatistics(7);
-        return ApiResponse.success("统计数据刷新成功", null);
+    @PostMapping("/counters/reconcile")
+    public ApiResponse<Void> reconcileCounters() {
+        counterReconciliationService.startAsync();
+        return ApiResponse.success("计数核对已开始", null);
+    }
+
+    /**
+     * 获取冗余计数核对状态和最近一次报告
+     *
+     * @return 核对状态和报告
+     */
+    @GetMapping("/counters/reconcile")
+    public ApiResponse<Map<String, Object>> getCounterReconcileReport() {
+        return ApiResponse.success(counterReconciliationService.getLastReport());
     }
 
     /**
@@ -150,6 +260,38 @@ public class AdminController {
         return ApiResponse.success(isBanned ? "禁言成功" : "解禁成功", null);
     }
 
+    /**
+     * 吊销用户当前已签发的所有Token（强制重新登录）
+     *
+     * @param userId 用户ID
+     * @return 成功响应
+     */
+    @PostMapping("/users/{userId}/revoke-tokens")
+    public ApiResponse<Void> revokeTokens(@PathVariable Long userId) {
+        tokenRevocationService.revokeAll(userId);
+        return ApiResponse.success("已强制下线", null);
+    }
+
+    /**
+     * 获取密码哈希线程池统计（排队数、拒绝数、重新哈希数等）
+     *
+     * @return 统计数据
+     */
+    @GetMapping("/auth/hashing-stats")
+    public ApiResponse<Map<String, Object>> getPasswordHashingStats() {
+        return ApiResponse.success(passwordHashingService.getStats());
+    }
+
+    /**
+     * 获取Token吊销表统计（吊销用户数、内存占用等）
+     *
+     * @return 统计数据
+     */
+    @GetMapping("/revocations/stats")
+    public ApiResponse<Map<String, Object>> getRevocationStats() {
+        return ApiResponse.success(tokenRevocationService.getStats());
+    }
+
     /**
      * 删除用户
      *
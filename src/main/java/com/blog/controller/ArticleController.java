@@ -3,15 +3,23 @@ package com.blog.controller;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.common.ApiResponse;
 import com.blog.dto.ArticleDTO;
+import com.blog.dto.ArticleSummaryVO;
 import com.blog.dto.ArticleVO;
+import com.blog.dto.CursorPage;
 import com.blog.service.ArticleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+
 /**
  * 文章控制器
  * 处理文章的创建、查询、更新、删除等请求
@@ -24,6 +32,12 @@ public class ArticleController {
     @Autowired
     private ArticleService articleService;
 
+    /**
+     * 非个性化响应允许被共享缓存的时间（秒）
+     */
+    @Value("${article.public-cache-max-age-seconds:30}")
+    private long publicCacheMaxAgeSeconds;
+
     /**
      * 创建文章（需要登录）
      *
@@ -82,16 +96,20 @@ public class ArticleController {
     /**
      * 获取文章详情（公开接口）
      *
-     * @param id     文章ID
-     * @param userId 当前用户ID（可选）
+     * @param id           文章ID
+     * @param personalized 是否包含当前用户的点赞/收藏状态（默认true，false时响应与访问者无关、可被共享缓存）
+     * @param userId       当前用户ID（可选）
+     * @param response     HTTP响应
      * @return 文章详情
      */
     @Operation(summary = "获取文章详情", description = "根据ID获取文章详细信息")
     @GetMapping("/{id}")
     public ApiResponse<ArticleVO> getArticle(
             @Parameter(description = "文章ID", required = true) @PathVariable Long id,
-            @Parameter(hidden = true) @RequestAttribute(value = "userId", required = false) Long userId) {
-        ArticleVO article = articleService.getArticleById(id, userId);
+            @Parameter(description = "是否包含当前用户的点赞/收藏状态") @RequestParam(defaultValue = "true") Boolean personalized,
+            @Parameter(hidden = true) @RequestAttribute(value = "userId", required = false) Long userId,
+            @Parameter(hidden = true) HttpServletResponse response) {
+        ArticleVO article = articleService.getArticleById(id, viewerId(personalized, userId, response));
         return ApiResponse.success(article);
     }
 
@@ -112,20 +130,52 @@ public class ArticleController {
     /**
      * 分页查询文章列表（公开接口）
      *
-     * @param page     页码（默认1）
-     * @param pageSize 每页数量（默认10）
-     * @param keyword  搜索关键词（可选）
-     * @param tag      标签（可选）
+     * @param page         页码（默认1）
+     * @param pageSize     每页数量（默认10）
+     * @param keyword      搜索关键词（可选）
+     * @param tag          标签，多个用逗号分隔（可选）
+     * @param matchAllTags 是否需要同时带有全部标签（默认false）
+     * @param personalized 是否包含当前用户的点赞/收藏状态（默认true，false时响应与访问者无关、可被共享缓存）
+     * @param userId       当前用户ID（可选）
+     * @param response     HTTP响应
      * @return 文章分页列表
      */
     @Operation(summary = "分页查询文章列表", description = "获取文章列表，支持关键词搜索和标签筛选")
     @GetMapping
-    public ApiResponse<Page<ArticleVO>> getArticlePage(
+    public ApiResponse<Page<ArticleSummaryVO>> getArticlePage(
             @Parameter(description = "页码", example = "1") @RequestParam(defaultValue = "1") Integer page,
             @Parameter(description = "每页数量", example = "10") @RequestParam(defaultValue = "10") Integer pageSize,
             @Parameter(description = "搜索关键词") @RequestParam(required = false) String keyword,
-            @Parameter(description = "标签") @RequestParam(required = false) String tag) {
-        Page<ArticleVO> articlePage = articleService.getArticlePage(page, pageSize, keyword, tag);
+            @Parameter(description = "标签，多个用逗号分隔") @RequestParam(required = false) String tag,
+            @Parameter(description = "是否需要同时带有全部标签") @RequestParam(defaultValue = "false") Boolean matchAllTags,
+            @Parameter(description = "是否包含当前用户的点赞/收藏状态") @RequestParam(defaultValue = "true") Boolean personalized,
+            @Parameter(hidden = true) @RequestAttribute(value = "userId", required = false) Long userId,
+            @Parameter(hidden = true) HttpServletResponse response) {
+        Page<ArticleSummaryVO> articlePage = articleService.getArticlePage(page, pageSize, keyword, tag, matchAllTags,
+                viewerId(personalized, userId, response));
+        return ApiResponse.success(articlePage);
+    }
+
+    /**
+     * 游标分页查询文章列表（公开接口）
+     *
+     * @param cursor   上一页返回的游标（第一页不传）
+     * @param pageSize     每页数量（默认10）
+     * @param personalized 是否包含当前用户的点赞/收藏状态（默认true，false时响应与访问者无关、可被共享缓存）
+     * @param userId       当前用户ID（可选）
+     * @param response     HTTP响应
+     * @return 文章游标分页列表
+     */
+    @Operation(summary = "游标分页查询文章列表", description = "按创建时间倒序获取文章，通过nextCursor翻页，不统计总数")
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPage<ArticleSummaryVO>> getArticleCursorPage(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量", example = "10") @RequestParam(defaultValue = "10") Integer pageSize,
+            @Parameter(description = "是否包含当前用户的点赞/收藏状态") @RequestParam(defaultValue = "true") Boolean personalized,
+            @Parameter(hidden = true) @RequestAttribute(value = "userId", required = false) Long userId,
+            @Parameter(hidden = true) HttpServletResponse response) {
+        CursorPage<ArticleSummaryVO> articlePage = articleService.getArticleCursorPage(cursor, pageSize,
+                viewerId(personalized, userId, response));
         return ApiResponse.success(articlePage);
     }
 
@@ -135,15 +185,32 @@ public class ArticleController {
      * @param keyword  搜索关键词
      * @param page     页码
      * @param pageSize 每页数量
+     * @param userId   当前用户ID（可选）
      * @return 文章分页列表
      */
     @Operation(summary = "搜索文章", description = "根据关键词搜索文章")
     @GetMapping("/search")
-    public ApiResponse<Page<ArticleVO>> searchArticles(
+    public ApiResponse<Page<ArticleSummaryVO>> searchArticles(
             @Parameter(description = "搜索关键词", required = true) @RequestParam String keyword,
             @Parameter(description = "页码", example = "1") @RequestParam(defaultValue = "1") Integer page,
-            @Parameter(description = "每页数量", example = "10") @RequestParam(defaultValue = "10") Integer pageSize) {
-        Page<ArticleVO> articlePage = articleService.getArticlePage(page, pageSize, keyword, null);
+            @Parameter(description = "每页数量", example = "10") @RequestParam(defaultValue = "10") Integer pageSize,
+            @Parameter(hidden = true) @RequestAttribute(value = "userId", required = false) Long userId) {
+        Page<ArticleSummaryVO> articlePage = articleService.getArticlePage(page, pageSize, keyword, null, false, userId);
         return ApiResponse.success(articlePage);
     }
+
+    /**
+     * 确定用于标注点赞/收藏状态的访问者
+     * 非个性化模式下不标注访问者状态，并允许共享缓存（状态通过/api/like-collect/status单独获取）
+     *
+     * @return 访问者ID，非个性化模式返回null
+     */
+    private Long viewerId(Boolean personalized, Long userId, HttpServletResponse response) {
+        if (Boolean.FALSE.equals(personalized)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.maxAge(Duration.ofSeconds(publicCacheMaxAgeSeconds)).cachePublic().getHeaderValue());
+            return null;
+        }
+        return userId;
+    }
 }
@@ -1,6 +1,8 @@
 package com.blog.controller;
 
 import com.blog.common.ApiResponse;
+import com.blog.dto.AuthTokenVO;
+import com.blog.dto.RefreshTokenDTO;
 import com.blog.dto.UserDTO;
 import com.blog.dto.UserLoginDTO;
 import com.blog.dto.UserRegisterDTO;
@@ -14,8 +16,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 认证控制器
@@ -53,29 +53,51 @@ public class AuthController {
      * 用户登录
      *
      * @param loginDTO 登录信息
-     * @return Token和用户信息
+     * @return 访问令牌、刷新令牌和用户信息
      */
-    @Operation(summary = "用户登录", description = "用户登录获取JWT Token")
+    @Operation(summary = "用户登录", description = "用户登录获取短有效期的访问令牌和刷新令牌")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "登录成功"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "用户名或密码错误")
     })
     @PostMapping("/login")
-    public ApiResponse<Map<String, Object>> login(
+    public ApiResponse<AuthTokenVO> login(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "登录信息", required = true)
             @RequestBody UserLoginDTO loginDTO) {
-        String token = userService.login(loginDTO);
-
-        // 获取用户信息
-        UserDTO user = userService.convertToDTO(
-                userService.getUserByUsername(loginDTO.getUsername())
-        );
+        return ApiResponse.success("登录成功", userService.login(loginDTO));
+    }
 
-        Map<String, Object> data = new HashMap<>();
-        data.put("token", token);
-        data.put("user", user);
+    /**
+     * 刷新访问令牌
+     *
+     * @param refreshTokenDTO 刷新令牌
+     * @return 新的访问令牌、刷新令牌和用户信息
+     */
+    @Operation(summary = "刷新访问令牌", description = "使用刷新令牌换取新的访问令牌，刷新令牌同时轮换（旧令牌作废）")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "刷新成功"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "刷新令牌无效、过期或已被使用（code=401）")
+    })
+    @PostMapping("/refresh")
+    public ApiResponse<AuthTokenVO> refresh(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "刷新令牌", required = true)
+            @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        return ApiResponse.success("刷新成功", userService.refresh(refreshTokenDTO.getRefreshToken()));
+    }
 
-        return ApiResponse.success("登录成功", data);
+    /**
+     * 退出登录（吊销刷新令牌）
+     *
+     * @param refreshTokenDTO 刷新令牌
+     * @return 成功响应
+     */
+    @Operation(summary = "退出登录", description = "吊销刷新令牌所在的令牌家族")
+    @PostMapping("/logout")
+    public ApiResponse<Void> logout(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "刷新令牌", required = true)
+            @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        userService.logout(refreshTokenDTO.getRefreshToken());
+        return ApiResponse.success("退出成功", null);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.common.ApiResponse;
 import com.blog.dto.CommentDTO;
 import com.blog.dto.CommentVO;
+import com.blog.dto.CursorPage;
 import com.blog.service.CommentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -47,16 +48,16 @@ public class CommentController {
      *
      * @param id     评论ID
      * @param userId 当前用户ID
-     * @return 成功响应
+     * @return 删除的评论数（含回复）
      */
-    @Operation(summary = "删除评论", description = "删除自己的评论或管理员删除任意评论",
+    @Operation(summary = "删除评论", description = "删除自己的评论或管理员删除任意评论，评论下的回复一并删除",
             security = @SecurityRequirement(name = "bearer-jwt"))
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deleteComment(
+    public ApiResponse<Integer> deleteComment(
             @Parameter(description = "评论ID", required = true) @PathVariable Long id,
             @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
-        commentService.deleteComment(id, userId);
-        return ApiResponse.success("删除成功", null);
+        int deleted = commentService.deleteComment(id, userId);
+        return ApiResponse.success("删除成功", deleted);
     }
 
     /**
@@ -76,4 +77,39 @@ public class CommentController {
         Page<CommentVO> commentPage = commentService.getCommentsByArticleId(articleId, page, pageSize);
         return ApiResponse.success(commentPage);
     }
+
+    /**
+     * 游标分页获取文章的评论列表（公开接口）
+     *
+     * @param articleId 文章ID
+     * @param cursor    上一页返回的游标（第一页不传）
+     * @param pageSize  每页数量
+     * @return 评论游标分页列表
+     */
+    @Operation(summary = "游标分页获取文章评论", description = "按时间倒序获取评论，通过nextCursor翻页，不统计总数")
+    @GetMapping("/article/{articleId}/cursor")
+    public ApiResponse<CursorPage<CommentVO>> getCommentCursorPage(
+            @Parameter(description = "文章ID", required = true) @PathVariable Long articleId,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量", example = "10") @RequestParam(defaultValue = "10") Integer pageSize) {
+        CursorPage<CommentVO> commentPage = commentService.getCommentCursorPage(articleId, cursor, pageSize);
+        return ApiResponse.success(commentPage);
+    }
+
+    /**
+     * 游标分页获取评论子树中的回复（公开接口）
+     *
+     * @param id       评论ID
+     * @param cursor   上一页返回的游标，或顶层评论的repliesCursor（第一页不传）
+     * @param pageSize 每页数量
+     * @return 回复游标分页列表（按楼中楼顺序，depth为层级）
+     */
+    @Operation(summary = "获取评论回复", description = "按楼中楼顺序分页获取评论下的全部回复")
+    @GetMapping("/{id}/replies")
+    public ApiResponse<CursorPage<CommentVO>> getReplies(
+            @Parameter(description = "评论ID", required = true) @PathVariable Long id,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量", example = "20") @RequestParam(defaultValue = "20") Integer pageSize) {
+        return ApiResponse.success(commentService.getReplies(id, cursor, pageSize));
+    }
 }
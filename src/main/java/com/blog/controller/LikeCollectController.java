@@ -1,7 +1,9 @@
 package com.blog.controller;
 
 import com.blog.common.ApiResponse;
-import com.blog.dto.ArticleVO;
+import com.blog.dto.ArticleSummaryVO;
+import com.blog.dto.CursorPage;
+import com.blog.dto.InteractionStatusVO;
 import com.blog.service.LikeCollectService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -54,27 +56,49 @@ public class LikeCollectController {
     }
 
     /**
-     * 获取用户点赞的文章列表（需要登录）
+     * 批量获取当前用户对文章的点赞、收藏状态（需要登录）
+     * 文章列表和详情以非个性化模式获取（可被共享缓存）后，再通过此接口补充当前用户的状态
      *
-     * @param userId 当前用户ID
-     * @return 文章列表
+     * @param articleIds 文章ID，多个用逗号分隔（最多100个）
+     * @param userId     当前用户ID
+     * @return 每篇文章的互动状态
      */
-    @GetMapping("/like-collect/liked-articles")
-    public ApiResponse<List<ArticleVO>> getLikedArticles(@RequestAttribute("userId") Long userId) {
-        List<ArticleVO> articles = likeCollectService.getLikedArticles(userId);
-        return ApiResponse.success(articles);
+    @GetMapping("/like-collect/status")
+    public ApiResponse<List<InteractionStatusVO>> getInteractionStatus(@RequestParam List<Long> articleIds,
+                                                                       @RequestAttribute("userId") Long userId) {
+        return ApiResponse.success(likeCollectService.getInteractionStatus(articleIds, userId));
     }
 
     /**
-     * 获取用户收藏的文章列表（需要登录）
+     * 游标分页获取用户点赞的文章列表（需要登录，按点赞时间倒序）
      *
-     * @param userId 当前用户ID
-     * @return 文章列表
+     * @param cursor   上一页返回的游标（第一页不传）
+     * @param pageSize 每页数量
+     * @param userId   当前用户ID
+     * @return 文章游标分页列表
      */
-    @GetMapping("/like-collect/collected-articles")
-    public ApiResponse<List<ArticleVO>> getCollectedArticles(@RequestAttribute("userId") Long userId) {
-        List<ArticleVO> articles = likeCollectService.getCollectedArticles(userId);
-        return ApiResponse.success(articles);
+    @GetMapping({"/like-collect/liked-articles", "/like-collect/liked-articles/cursor"})
+    public ApiResponse<CursorPage<ArticleSummaryVO>> getLikedArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestAttribute("userId") Long userId) {
+        return ApiResponse.success(likeCollectService.getLikedArticleCursorPage(userId, cursor, pageSize));
+    }
+
+    /**
+     * 游标分页获取用户收藏的文章列表（需要登录，按收藏时间倒序）
+     *
+     * @param cursor   上一页返回的游标（第一页不传）
+     * @param pageSize 每页数量
+     * @param userId   当前用户ID
+     * @return 文章游标分页列表
+     */
+    @GetMapping({"/like-collect/collected-articles", "/like-collect/collected-articles/cursor"})
+    public ApiResponse<CursorPage<ArticleSummaryVO>> getCollectedArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestAttribute("userId") Long userId) {
+        return ApiResponse.success(likeCollectService.getCollectedArticleCursorPage(userId, cursor, pageSize));
     }
 
     /**
@@ -0,0 +1,74 @@
+package com.blog.controller;
+
+import com.blog.common.ApiResponse;
+import com.blog.dto.CursorPage;
+import com.blog.dto.NotificationVO;
+import com.blog.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 通知控制器
+ * 处理当前用户通知的查询和已读标记请求
+ */
+@Tag(name = "通知管理", description = "通知的查询、已读标记等接口")
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    /**
+     * 游标分页获取当前用户的通知（需要登录，按时间倒序）
+     *
+     * @param cursor   上一页返回的游标（第一页不传）
+     * @param pageSize 每页数量
+     * @param userId   当前用户ID
+     * @return 通知游标分页列表
+     */
+    @Operation(summary = "获取通知列表", description = "游标分页获取当前用户的通知，按时间倒序",
+            security = @SecurityRequirement(name = "bearer-jwt"))
+    @GetMapping
+    public ApiResponse<CursorPage<NotificationVO>> getNotifications(
+            @Parameter(description = "上一页返回的游标，第一页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "20") Integer pageSize,
+            @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
+        return ApiResponse.success(notificationService.getNotificationCursorPage(userId, cursor, pageSize));
+    }
+
+    /**
+     * 获取当前用户的未读通知数（需要登录）
+     *
+     * @param userId 当前用户ID
+     * @return 未读通知数
+     */
+    @Operation(summary = "获取未读通知数", security = @SecurityRequirement(name = "bearer-jwt"))
+    @GetMapping("/unread-count")
+    public ApiResponse<Map<String, Long>> getUnreadCount(
+            @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
+        Map<String, Long> result = new HashMap<>();
+        result.put("unreadCount", notificationService.getUnreadCount(userId));
+        return ApiResponse.success(result);
+    }
+
+    /**
+     * 将当前用户的通知全部标记为已读（需要登录）
+     *
+     * @param userId 当前用户ID
+     * @return 成功响应
+     */
+    @Operation(summary = "全部标记为已读", security = @SecurityRequirement(name = "bearer-jwt"))
+    @PutMapping("/read")
+    public ApiResponse<Void> markAllRead(@Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
+        notificationService.markAllRead(userId);
+        return ApiResponse.success("操作成功", null);
+    }
+}
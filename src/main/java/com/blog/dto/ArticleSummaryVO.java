@@ -0,0 +1,83 @@
+package com.blog.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 文章列表VO（用于返回给前端，不含正文）
+ */
+@Data
+public class ArticleSummaryVO {
+
+    /**
+     * 文章ID
+     */
+    private Long id;
+
+    /**
+     * 文章标题
+     */
+    private String title;
+
+    /**
+     * 文章摘要
+     */
+    private String summary;
+
+    /**
+     * 封面图片URL
+     */
+    private String coverImage;
+
+    /**
+     * 作者信息
+     */
+    private UserDTO author;
+
+    /**
+     * 浏览次数
+     */
+    private Integer viewCount;
+
+    /**
+     * 点赞次数
+     */
+    private Integer likeCount;
+
+    /**
+     * 收藏次数
+     */
+    private Integer collectCount;
+
+    /**
+     * 评论次数
+     */
+    private Integer commentCount;
+
+    /**
+     * 当前用户是否已点赞
+     */
+    private Boolean isLiked;
+
+    /**
+     * 当前用户是否已收藏
+     */
+    private Boolean isCollected;
+
+    /**
+     * 标签列表
+     */
+    private List<String> tags;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.blog.dto;
+
+import lombok.Data;
+
+/**
+ * 登录/刷新令牌结果VO
+ */
+@Data
+public class AuthTokenVO {
+
+    /**
+     * 访问令牌（JWT，短有效期）
+     */
+    private String token;
+
+    /**
+     * 刷新令牌（每次刷新后作废，需保存新返回的令牌）
+     */
+    private String refreshToken;
+
+    /**
+     * 访问令牌有效期（秒）
+     */
+    private Long expiresIn;
+
+    /**
+     * 用户信息
+     */
+    private UserDTO user;
+}
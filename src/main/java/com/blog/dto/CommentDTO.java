@@ -15,6 +15,11 @@ public class CommentDTO {
      */
     private Long articleId;
 
+    /**
+     * 回复的评论ID（为空表示发表顶层评论）
+     */
+    private Long parentId;
+
     /**
      * 评论内容
      */
@@ -3,6 +3,7 @@ package com.blog.dto;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 评论VO（用于返回给前端）
@@ -20,6 +21,36 @@ public class CommentVO {
      */
     private String content;
 
+    /**
+     * 回复的评论ID(NULL表示顶层评论)
+     */
+    private Long parentId;
+
+    /**
+     * 所属顶层评论ID(NULL表示顶层评论)
+     */
+    private Long rootId;
+
+    /**
+     * 层级（顶层为0）
+     */
+    private Integer depth;
+
+    /**
+     * 子树中的回复数
+     */
+    private Integer replyCount;
+
+    /**
+     * 预加载的前几条回复（仅顶层评论，按楼中楼顺序）
+     */
+    private List<CommentVO> replies;
+
+    /**
+     * 继续加载回复的游标（传给回复列表接口，没有更多回复时为null）
+     */
+    private String repliesCursor;
+
     /**
      * 评论者信息
      */
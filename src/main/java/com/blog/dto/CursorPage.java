@@ -0,0 +1,31 @@
+package com.blog.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 不统计总数，通过nextCursor获取下一页
+ *
+ * @param <T> 记录类型
+ */
+@Data
+public class CursorPage<T> {
+
+    /**
+     * 当前页记录
+     */
+    private List<T> records = new ArrayList<>();
+
+    /**
+     * 下一页游标（没有更多数据时为null）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore = false;
+}
@@ -0,0 +1,25 @@
+package com.blog.dto;
+
+import lombok.Data;
+
+/**
+ * 文章互动状态VO（当前用户是否点赞、收藏）
+ */
+@Data
+public class InteractionStatusVO {
+
+    /**
+     * 文章ID
+     */
+    private Long articleId;
+
+    /**
+     * 当前用户是否已点赞
+     */
+    private Boolean isLiked;
+
+    /**
+     * 当前用户是否已收藏
+     */
+    private Boolean isCollected;
+}
@@ -0,0 +1,52 @@
+package com.blog.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知VO（用于返回给前端）
+ */
+@Data
+public class NotificationVO {
+
+    /**
+     * 通知ID
+     */
+    private Long id;
+
+    /**
+     * 通知类型 MENTION=评论中提及
+     */
+    private String type;
+
+    /**
+     * 触发者信息
+     */
+    private UserDTO actor;
+
+    /**
+     * 相关文章ID
+     */
+    private Long articleId;
+
+    /**
+     * 相关评论ID
+     */
+    private Long commentId;
+
+    /**
+     * 相关评论内容摘要（评论已删除时为空）
+     */
+    private String excerpt;
+
+    /**
+     * 是否已读 0=否 1=是
+     */
+    private Integer isRead;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
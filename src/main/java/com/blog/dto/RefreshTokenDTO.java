@@ -0,0 +1,15 @@
+package com.blog.dto;
+
+import lombok.Data;
+
+/**
+ * 刷新令牌请求DTO
+ */
+@Data
+public class RefreshTokenDTO {
+
+    /**
+     * 刷新令牌
+     */
+    private String refreshToken;
+}
@@ -0,0 +1,46 @@
+package com.blog.entity;
+
+import lombok.Data;
+
+/**
+ * 文章计数偏差读模型
+ * 核对任务查询得到的文章冗余计数（记录值）与关联表实际计数不一致的行
+ */
+@Data
+public class ArticleCounterDrift {
+
+    /**
+     * 文章ID
+     */
+    private Long articleId;
+
+    /**
+     * 记录的点赞数
+     */
+    private Integer likeCount;
+
+    /**
+     * 实际点赞数（user_like行数）
+     */
+    private Integer actualLikeCount;
+
+    /**
+     * 记录的收藏数
+     */
+    private Integer collectCount;
+
+    /**
+     * 实际收藏数（user_collect行数）
+     */
+    private Integer actualCollectCount;
+
+    /**
+     * 记录的评论数
+     */
+    private Integer commentCount;
+
+    /**
+     * 实际评论数（未删除的评论行数）
+     */
+    private Integer actualCommentCount;
+}
@@ -0,0 +1,68 @@
+package com.blog.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章列表读模型
+ * article表去掉content列的投影，供列表查询使用，避免加载longtext正文
+ */
+@Data
+public class ArticleSummary {
+
+    /**
+     * 文章ID
+     */
+    private Long id;
+
+    /**
+     * 作者ID
+     */
+    private Long userId;
+
+    /**
+     * 文章标题
+     */
+    private String title;
+
+    /**
+     * 文章摘要
+     */
+    private String summary;
+
+    /**
+     * 封面图片URL
+     */
+    private String coverImage;
+
+    /**
+     * 浏览次数
+     */
+    private Integer viewCount;
+
+    /**
+     * 点赞次数
+     */
+    private Integer likeCount;
+
+    /**
+     * 收藏次数
+     */
+    private Integer collectCount;
+
+    /**
+     * 评论次数
+     */
+    private Integer commentCount;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 文章UV草图实体类（按文章、按天）
+ */
+@Data
+@TableName("article_uv_sketch")
+public class ArticleUvSketch {
+
+    /**
+     * 文章ID
+     */
+    private Long articleId;
+
+    /**
+     * 统计日期
+     */
+    private LocalDate statisticDate;
+
+    /**
+     * 独立访客数（草图估计值）
+     */
+    private Integer uv;
+
+    /**
+     * UV的HyperLogLog草图（压缩字节）
+     */
+    private byte[] sketch;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
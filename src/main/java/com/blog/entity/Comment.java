@@ -29,14 +29,34 @@ public class Comment {
     private Long userId;
 
     /**
-     * 评论内容
+     * 回复的评论ID(NULL表示顶层评论)
      */
-    private String content;
+    private Long parentId;
+
+    /**
+     * 所属顶层评论ID(NULL表示顶层评论)
+     */
+    private Long rootId;
+
+    /**
+     * 物化路径（祖先到自身的评论ID，每段定长，按路径排序即为楼中楼的展示顺序）
+     */
+    private String path;
 
     /**
-     * @提及的用户列表（JSON格式）
+     * 层级（顶层为0）
      */
-    private String mentions;
+    private Integer depth;
+
+    /**
+     * 子树中的回复数
+     */
+    private Integer replyCount;
+
+    /**
+     * 评论内容
+     */
+    private String content;
 
     /**
      * 是否删除 0=否 1=是
@@ -0,0 +1,36 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 评论提及实体类
+ */
+@Data
+@TableName("comment_mention")
+public class CommentMention {
+
+    /**
+     * ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 评论ID
+     */
+    private Long commentId;
+
+    /**
+     * 被提及的用户ID
+     */
+    private Long userId;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,61 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知实体类
+ */
+@Data
+@TableName("notification")
+public class Notification {
+
+    /**
+     * 通知类型：评论中提及
+     */
+    public static final String TYPE_MENTION = "MENTION";
+
+    /**
+     * 通知ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 接收者ID
+     */
+    private Long userId;
+
+    /**
+     * 通知类型
+     */
+    private String type;
+
+    /**
+     * 触发者ID
+     */
+    private Long actorId;
+
+    /**
+     * 相关文章ID
+     */
+    private Long articleId;
+
+    /**
+     * 相关评论ID
+     */
+    private Long commentId;
+
+    /**
+     * 是否已读 0=否 1=是
+     */
+    private Integer isRead;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,56 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 刷新令牌实体类
+ */
+@Data
+@TableName("refresh_token")
+public class RefreshToken {
+
+    /**
+     * ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 令牌家族ID（一次登录产生的轮换链）
+     */
+    private String familyId;
+
+    /**
+     * 令牌SHA-256摘要（十六进制）
+     */
+    private String tokenHash;
+
+    /**
+     * 过期时间
+     */
+    private LocalDateTime expiresAt;
+
+    /**
+     * 轮换时间（NULL表示未使用）
+     */
+    private LocalDateTime usedAt;
+
+    /**
+     * 是否吊销 0=否 1=是
+     */
+    private Integer revoked;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
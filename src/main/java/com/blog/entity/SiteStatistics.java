@@ -1,6 +1,7 @@
 package com.blog.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -39,6 +40,14 @@ public class SiteStatistics {
      */
     private Integer newUsers;
 
+    /**
+     * UV的HyperLogLog草图（压缩字节），用于跨天合并计算UV
+     * 默认不查询，也不返回给前端
+     */
+    @JsonIgnore
+    @TableField(select = false)
+    private byte[] uvSketch;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,47 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全站累计计数实体类（单行表）
+ */
+@Data
+@TableName("site_totals")
+public class SiteTotals {
+
+    /**
+     * 固定为1
+     */
+    @TableId(value = "id", type = IdType.INPUT)
+    private Integer id;
+
+    /**
+     * 文章总数（未删除）
+     */
+    private Long totalArticles;
+
+    /**
+     * 用户总数（未删除）
+     */
+    private Long totalUsers;
+
+    /**
+     * 评论总数（未删除）
+     */
+    private Long totalComments;
+
+    /**
+     * 总浏览量（未删除文章）
+     */
+    private Long totalViews;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
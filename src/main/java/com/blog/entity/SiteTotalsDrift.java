@@ -0,0 +1,51 @@
+package com.blog.entity;
+
+import lombok.Data;
+
+/**
+ * 全站累计计数核对读模型
+ * 同一条语句（同一个一致性快照）读取的计数行记录值和源表实际值
+ */
+@Data
+public class SiteTotalsDrift {
+
+    /**
+     * 记录的文章总数
+     */
+    private Long totalArticles;
+
+    /**
+     * 实际文章总数（未删除）
+     */
+    private Long actualTotalArticles;
+
+    /**
+     * 记录的用户总数
+     */
+    private Long totalUsers;
+
+    /**
+     * 实际用户总数（未删除）
+     */
+    private Long actualTotalUsers;
+
+    /**
+     * 记录的评论总数
+     */
+    private Long totalComments;
+
+    /**
+     * 实际评论总数（未删除）
+     */
+    private Long actualTotalComments;
+
+    /**
+     * 记录的总浏览量
+     */
+    private Long totalViews;
+
+    /**
+     * 实际总浏览量（未删除文章）
+     */
+    private Long actualTotalViews;
+}
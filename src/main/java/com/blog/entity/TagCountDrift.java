@@ -0,0 +1,26 @@
+package com.blog.entity;
+
+import lombok.Data;
+
+/**
+ * 标签计数偏差读模型
+ * 核对任务查询得到的标签关联文章数（记录值）与实际值不一致的行
+ */
+@Data
+public class TagCountDrift {
+
+    /**
+     * 标签ID
+     */
+    private Long tagId;
+
+    /**
+     * 记录的关联文章数
+     */
+    private Integer count;
+
+    /**
+     * 实际关联文章数（未删除文章的article_tag行数）
+     */
+    private Integer actualCount;
+}
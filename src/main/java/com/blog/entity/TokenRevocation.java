@@ -0,0 +1,30 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token吊销实体类
+ */
+@Data
+@TableName("token_revocation")
+public class TokenRevocation {
+
+    /**
+     * 用户ID
+     */
+    @TableId(value = "user_id", type = IdType.INPUT)
+    private Long userId;
+
+    /**
+     * 吊销截止时间（签发时间早于该时间的Token无效）
+     */
+    private LocalDateTime revokedBefore;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
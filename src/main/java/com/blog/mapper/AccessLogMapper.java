@@ -2,11 +2,43 @@ package com.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.blog.entity.AccessLog;
+import com.blog.entity.SiteStatistics;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 访问日志Mapper接口
  */
 @Mapper
 public interface AccessLogMapper extends BaseMapper<AccessLog> {
+
+    /**
+     * 多行插入访问日志（created_at由调用方在采集时设置）
+     *
+     * @param logs 访问日志列表
+     * @return 插入行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO access_log (article_id, user_id, ip_address, user_agent, created_at) VALUES "
+            + "<foreach collection='logs' item='log' separator=','>"
+            + "(#{log.articleId}, #{log.userId}, #{log.ipAddress}, #{log.userAgent}, #{log.createdAt})"
+            + "</foreach>"
+            + "</script>")
+    int insertBatch(@Param("logs") List<AccessLog> logs);
+
+    /**
+     * 按天统计时间区间内的PV（一次扫描）
+     *
+     * @param start 开始时间（包含）
+     * @param end   结束时间（不包含）
+     * @return 每天一条记录（只填充statisticDate和pv），没有访问的日期不返回
+     */
+    @Select("SELECT DATE(created_at) AS statistic_date, COUNT(*) AS pv FROM access_log "
+            + "WHERE created_at >= #{start} AND created_at < #{end} GROUP BY DATE(created_at)")
+    List<SiteStatistics> countPvByDate(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
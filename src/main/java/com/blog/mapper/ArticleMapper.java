@@ -1,12 +1,209 @@
 package com.blog.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.blog.entity.Article;
+import com.blog.entity.ArticleCounterDrift;
+import com.blog.entity.ArticleSummary;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 文章Mapper接口
  */
 @Mapper
 public interface ArticleMapper extends BaseMapper<Article> {
+
+    /**
+     * 列表查询使用的列（不含content）
+     */
+    String SUMMARY_COLUMNS = "id, user_id, title, summary, cover_image, view_count, like_count, "
+            + "collect_count, comment_count, created_at, updated_at";
+
+    /**
+     * 分页查询文章摘要
+     * 自定义SQL不会自动追加逻辑删除条件，调用方需在wrapper中指定is_deleted
+     *
+     * @param page    分页参数
+     * @param wrapper 查询条件
+     * @return 文章摘要分页
+     */
+    @Select("SELECT " + SUMMARY_COLUMNS + " FROM article ${ew.customSqlSegment}")
+    IPage<ArticleSummary> selectSummaryPage(IPage<ArticleSummary> page,
+                                            @Param(Constants.WRAPPER) Wrapper<Article> wrapper);
+
+    /**
+     * 查询文章摘要列表
+     * 自定义SQL不会自动追加逻辑删除条件，调用方需在wrapper中指定is_deleted
+     *
+     * @param wrapper 查询条件
+     * @return 文章摘要列表
+     */
+    @Select("SELECT " + SUMMARY_COLUMNS + " FROM article ${ew.customSqlSegment}")
+    List<ArticleSummary> selectSummaryList(@Param(Constants.WRAPPER) Wrapper<Article> wrapper);
+
+    /**
+     * 统计未删除文章的总浏览量
+     *
+     * @return 总浏览量
+     */
+    @Select("SELECT COALESCE(SUM(view_count), 0) FROM article WHERE is_deleted = 0")
+    long sumViewCount();
+
+    /**
+     * 批量累加文章浏览量（单条UPDATE语句）
+     * 显式保留updated_at，浏览不算作文章修改
+     *
+     * @param deltas 文章ID → 浏览量增量
+     * @return 影响行数
+     */
+    @Update("<script>"
+            + "UPDATE article SET view_count = view_count + CASE id "
+            + "<foreach collection='deltas' index='articleId' item='delta'>WHEN #{articleId} THEN #{delta} </foreach>"
+            + "END, updated_at = updated_at WHERE id IN "
+            + "<foreach collection='deltas' index='articleId' open='(' separator=',' close=')'>#{articleId}</foreach>"
+            + "</script>")
+    int incrementViewCounts(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 锁定未删除的文章行并返回其ID（浏览量写回时与删除文章互斥）
+     *
+     * @param articleIds 文章ID
+     * @return 未删除的文章ID
+     */
+    @Select("<script>"
+            + "SELECT id FROM article WHERE is_deleted = 0 AND id IN "
+            + "<foreach collection='articleIds' item='articleId' open='(' separator=',' close=')'>#{articleId}</foreach>"
+            + " FOR UPDATE"
+            + "</script>")
+    List<Long> selectLiveIdsForUpdate(@Param("articleIds") Collection<Long> articleIds);
+
+    /**
+     * 锁定未删除的文章行并读取已写回的浏览量
+     *
+     * @param articleId 文章ID
+     * @return 浏览量，文章不存在或已删除时返回null
+     */
+    @Select("SELECT view_count FROM article WHERE id = #{articleId} AND is_deleted = 0 FOR UPDATE")
+    Integer selectViewCountForUpdate(@Param("articleId") Long articleId);
+
+    /**
+     * 点赞数加1（相对更新，文章已删除时不更新）
+     *
+     * @param articleId 文章ID
+     * @return 影响行数（文章不存在或已删除时为0）
+     */
+    @Update("UPDATE article SET like_count = like_count + 1, updated_at = updated_at "
+            + "WHERE id = #{articleId} AND is_deleted = 0")
+    int increaseLikeCount(@Param("articleId") Long articleId);
+
+    /**
+     * 点赞数减1（相对更新，不会减到负数）
+     *
+     * @param articleId 文章ID
+     * @return 影响行数
+     */
+    @Update("UPDATE article SET like_count = like_count - 1, updated_at = updated_at "
+            + "WHERE id = #{articleId} AND like_count > 0")
+    int decreaseLikeCount(@Param("articleId") Long articleId);
+
+    /**
+     * 收藏数加1（相对更新，文章已删除时不更新）
+     *
+     * @param articleId 文章ID
+     * @return 影响行数（文章不存在或已删除时为0）
+     */
+    @Update("UPDATE article SET collect_count = collect_count + 1, updated_at = updated_at "
+            + "WHERE id = #{articleId} AND is_deleted = 0")
+    int increaseCollectCount(@Param("articleId") Long articleId);
+
+    /**
+     * 收藏数减1（相对更新，不会减到负数）
+     *
+     * @param articleId 文章ID
+     * @return 影响行数
+     */
+    @Update("UPDATE article SET collect_count = collect_count - 1, updated_at = updated_at "
+            + "WHERE id = #{articleId} AND collect_count > 0")
+    int decreaseCollectCount(@Param("articleId") Long articleId);
+
+    /**
+     * 评论数加1（相对更新，文章已删除时不更新）
+     *
+     * @param articleId 文章ID
+     * @return 影响行数（文章不存在或已删除时为0）
+     */
+    @Update("UPDATE article SET comment_count = comment_count + 1, updated_at = updated_at "
+            + "WHERE id = #{articleId} AND is_deleted = 0")
+    int increaseCommentCount(@Param("articleId") Long articleId);
+
+    /**
+     * 评论数减少指定数量（相对更新，不会减到负数）
+     *
+     * @param articleId 文章ID
+     * @param count     减少的评论数
+     * @return 影响行数
+     */
+    @Update("UPDATE article SET comment_count = GREATEST(comment_count - #{count}, 0), updated_at = updated_at "
+            + "WHERE id = #{articleId}")
+    int decreaseCommentCount(@Param("articleId") Long articleId, @Param("count") int count);
+
+    /**
+     * 获取下一段文章ID的上界（只扫描主键索引）
+     *
+     * @param afterId 上一段的上界（不包含）
+     * @param limit   每段文章数
+     * @return 本段最大的文章ID，没有更多文章时返回null
+     */
+    @Select("SELECT MAX(id) FROM (SELECT id FROM article WHERE id > #{afterId} ORDER BY id LIMIT #{limit}) t")
+    Long selectChunkEnd(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 查询ID区间内冗余计数与关联表不一致的文章
+     * 关联表按文章ID区间分组计数（走article_id索引），普通一致性读，不加锁
+     *
+     * @param fromId 起始文章ID（包含）
+     * @param toId   结束文章ID（包含）
+     * @return 存在偏差的文章
+     */
+    @Select("SELECT a.id AS article_id, "
+            + "COALESCE(a.like_count, 0) AS like_count, COALESCE(l.cnt, 0) AS actual_like_count, "
+            + "COALESCE(a.collect_count, 0) AS collect_count, COALESCE(c.cnt, 0) AS actual_collect_count, "
+            + "COALESCE(a.comment_count, 0) AS comment_count, COALESCE(m.cnt, 0) AS actual_comment_count "
+            + "FROM article a "
+            + "LEFT JOIN (SELECT article_id, COUNT(*) AS cnt FROM user_like "
+            + "WHERE article_id BETWEEN #{fromId} AND #{toId} GROUP BY article_id) l ON l.article_id = a.id "
+            + "LEFT JOIN (SELECT article_id, COUNT(*) AS cnt FROM user_collect "
+            + "WHERE article_id BETWEEN #{fromId} AND #{toId} GROUP BY article_id) c ON c.article_id = a.id "
+            + "LEFT JOIN (SELECT article_id, COUNT(*) AS cnt FROM comment "
+            + "WHERE article_id BETWEEN #{fromId} AND #{toId} AND is_deleted = 0 GROUP BY article_id) m ON m.article_id = a.id "
+            + "WHERE a.id BETWEEN #{fromId} AND #{toId} "
+            + "AND (COALESCE(a.like_count, 0) <> COALESCE(l.cnt, 0) "
+            + "OR COALESCE(a.collect_count, 0) <> COALESCE(c.cnt, 0) "
+            + "OR COALESCE(a.comment_count, 0) <> COALESCE(m.cnt, 0))")
+    List<ArticleCounterDrift> selectCounterDrifts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 按偏差相对修正文章计数（与并发的点赞、评论更新互不覆盖）
+     *
+     * @param articleId    文章ID
+     * @param likeDelta    点赞数修正量
+     * @param collectDelta 收藏数修正量
+     * @param commentDelta 评论数修正量
+     * @return 影响行数
+     */
+    @Update("UPDATE article SET like_count = COALESCE(like_count, 0) + #{likeDelta}, "
+            + "collect_count = COALESCE(collect_count, 0) + #{collectDelta}, "
+            + "comment_count = COALESCE(comment_count, 0) + #{commentDelta}, "
+            + "updated_at = updated_at WHERE id = #{articleId}")
+    int adjustCounters(@Param("articleId") Long articleId, @Param("likeDelta") int likeDelta,
+                       @Param("collectDelta") int collectDelta, @Param("commentDelta") int commentDelta);
 }
@@ -0,0 +1,31 @@
+package com.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.ArticleUvSketch;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 文章UV草图Mapper接口
+ */
+@Mapper
+public interface ArticleUvSketchMapper extends BaseMapper<ArticleUvSketch> {
+
+    /**
+     * 批量写入或覆盖文章UV草图
+     *
+     * @param sketches 草图列表
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO article_uv_sketch (article_id, statistic_date, uv, sketch) VALUES "
+            + "<foreach collection='sketches' item='s' separator=','>"
+            + "(#{s.articleId}, #{s.statisticDate}, #{s.uv}, #{s.sketch})"
+            + "</foreach>"
+            + " ON DUPLICATE KEY UPDATE uv = VALUES(uv), sketch = VALUES(sketch)"
+            + "</script>")
+    int upsertBatch(@Param("sketches") List<ArticleUvSketch> sketches);
+}
@@ -3,10 +3,115 @@ package com.blog.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.blog.entity.Comment;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 评论Mapper接口
  */
 @Mapper
 public interface CommentMapper extends BaseMapper<Comment> {
+
+    /**
+     * 查询每个顶层评论按楼中楼顺序的前几条回复的键（id、root_id、path）
+     * 每个顶层评论一段(root_id, path)索引范围扫描，只读索引，结果包含已删除的回复
+     *
+     * @param rootIds 顶层评论ID
+     * @param limit   每个顶层评论最多返回的回复数
+     * @return 回复的键
+     */
+    @Select("<script>"
+            + "<foreach collection='rootIds' item='rootId' separator=' UNION ALL '>"
+            + "(SELECT id, root_id, path FROM comment WHERE root_id = #{rootId} ORDER BY path LIMIT #{limit})"
+            + "</foreach>"
+            + "</script>")
+    List<Comment> selectFirstReplyKeys(@Param("rootIds") Collection<Long> rootIds, @Param("limit") int limit);
+
+    /**
+     * 按路径范围分页查询子树中回复的键（id、root_id、path）
+     * 子树内路径都以祖先路径加"/"开头，即落在 (afterPath, upperPath) 区间内，只读(root_id, path)索引
+     *
+     * @param rootId    顶层评论ID
+     * @param afterPath 上一页最后一条的路径（不包含）
+     * @param upperPath 子树路径上界（不包含）
+     * @param limit     最多返回条数
+     * @return 回复的键（按路径排序，包含已删除的回复）
+     */
+    @Select("SELECT id, root_id, path FROM comment WHERE root_id = #{rootId} "
+            + "AND path > #{afterPath} AND path < #{upperPath} ORDER BY path LIMIT #{limit}")
+    List<Comment> selectSubtreeKeys(@Param("rootId") Long rootId, @Param("afterPath") String afterPath,
+                                    @Param("upperPath") String upperPath, @Param("limit") int limit);
+
+    /**
+     * 设置评论的物化路径（路径包含自身ID，插入后才能确定）
+     *
+     * @param id   评论ID
+     * @param path 物化路径
+     * @return 影响行数
+     */
+    @Update("UPDATE comment SET path = #{path}, updated_at = updated_at WHERE id = #{id}")
+    int updatePath(@Param("id") Long id, @Param("path") String path);
+
+    /**
+     * 逻辑删除子树中未删除的回复
+     * 子树内路径都落在 (afterPath, upperPath) 区间内，沿(root_id, path)索引定位
+     *
+     * @param rootId    顶层评论ID
+     * @param afterPath 子树根评论的路径加"/"（不包含）
+     * @param upperPath 子树路径上界（不包含）
+     * @return 删除的回复数
+     */
+    @Update("UPDATE comment SET is_deleted = 1, updated_at = NOW() WHERE root_id = #{rootId} "
+            + "AND path > #{afterPath} AND path < #{upperPath} AND is_deleted = 0")
+    int deleteSubtree(@Param("rootId") Long rootId, @Param("afterPath") String afterPath,
+                      @Param("upperPath") String upperPath);
+
+    /**
+     * 查询子树中指定层级的未删除评论ID
+     * 子树内路径都落在 (afterPath, upperPath) 区间内，沿(root_id, path)索引定位
+     *
+     * @param rootId    顶层评论ID
+     * @param afterPath 子树根评论的路径加"/"（不包含）
+     * @param upperPath 子树路径上界（不包含）
+     * @param depth     层级
+     * @return 评论ID
+     */
+    @Select("SELECT id FROM comment WHERE root_id = #{rootId} "
+            + "AND path > #{afterPath} AND path < #{upperPath} AND depth = #{depth} AND is_deleted = 0")
+    List<Long> selectSubtreeIdsAtDepth(@Param("rootId") Long rootId, @Param("afterPath") String afterPath,
+                                       @Param("upperPath") String upperPath, @Param("depth") int depth);
+
+    /**
+     * 查询回复指定评论的未删除评论的键（id、path）
+     * 用于查找超过最大层级、作为被回复评论的兄弟节点存放的回复，沿(root_id, path)索引定位
+     *
+     * @param rootId    顶层评论ID
+     * @param depth     回复所在层级
+     * @param parentIds 被回复的评论ID
+     * @return 回复的键
+     */
+    @Select("<script>"
+            + "SELECT id, path FROM comment WHERE root_id = #{rootId} AND depth = #{depth} AND is_deleted = 0 "
+            + "AND parent_id IN "
+            + "<foreach collection='parentIds' item='parentId' open='(' separator=',' close=')'>#{parentId}</foreach>"
+            + "</script>")
+    List<Comment> selectLiveRepliesAtDepth(@Param("rootId") Long rootId, @Param("depth") int depth,
+                                           @Param("parentIds") Collection<Long> parentIds);
+
+    /**
+     * 调整祖先评论的子树回复数
+     *
+     * @param ids   祖先评论ID
+     * @param delta 调整量
+     * @return 影响行数
+     */
+    @Update("<script>"
+            + "UPDATE comment SET reply_count = GREATEST(reply_count + #{delta}, 0), updated_at = updated_at WHERE id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + "</script>")
+    int adjustReplyCounts(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
 }
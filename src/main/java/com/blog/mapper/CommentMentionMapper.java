@@ -0,0 +1,30 @@
+package com.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.CommentMention;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 评论提及Mapper接口
+ */
+@Mapper
+public interface CommentMentionMapper extends BaseMapper<CommentMention> {
+
+    /**
+     * 多行插入评论提及，已存在的 (comment_id, user_id) 被忽略（扇出重试时保持幂等）
+     *
+     * @param mentions 评论提及列表
+     * @return 插入行数
+     */
+    @Insert("<script>"
+            + "INSERT IGNORE INTO comment_mention (comment_id, user_id) VALUES "
+            + "<foreach collection='mentions' item='m' separator=','>"
+            + "(#{m.commentId}, #{m.userId})"
+            + "</foreach>"
+            + "</script>")
+    int insertIgnoreBatch(@Param("mentions") List<CommentMention> mentions);
+}
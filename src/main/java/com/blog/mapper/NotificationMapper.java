@@ -0,0 +1,40 @@
+package com.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.Notification;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 通知Mapper接口
+ */
+@Mapper
+public interface NotificationMapper extends BaseMapper<Notification> {
+
+    /**
+     * 多行插入通知（created_at使用数据库默认值）
+     *
+     * @param notifications 通知列表
+     * @return 插入行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO notification (user_id, type, actor_id, article_id, comment_id, is_read) VALUES "
+            + "<foreach collection='notifications' item='n' separator=','>"
+            + "(#{n.userId}, #{n.type}, #{n.actorId}, #{n.articleId}, #{n.commentId}, 0)"
+            + "</foreach>"
+            + "</script>")
+    int insertBatch(@Param("notifications") List<Notification> notifications);
+
+    /**
+     * 将用户的未读通知全部标记为已读（沿idx_user_read索引）
+     *
+     * @param userId 用户ID
+     * @return 影响行数
+     */
+    @Update("UPDATE notification SET is_read = 1 WHERE user_id = #{userId} AND is_read = 0")
+    int markAllRead(@Param("userId") Long userId);
+}
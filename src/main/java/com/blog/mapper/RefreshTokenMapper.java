@@ -0,0 +1,44 @@
+package com.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.RefreshToken;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * 刷新令牌Mapper接口
+ */
+@Mapper
+public interface RefreshTokenMapper extends BaseMapper<RefreshToken> {
+
+    /**
+     * 将令牌标记为已使用（仅当未使用且未吊销时成功，并发刷新只有一个能成功）
+     *
+     * @param id     令牌ID
+     * @param usedAt 使用时间
+     * @return 影响行数
+     */
+    @Update("UPDATE refresh_token SET used_at = #{usedAt} WHERE id = #{id} AND used_at IS NULL AND revoked = 0")
+    int markUsed(@Param("id") Long id, @Param("usedAt") LocalDateTime usedAt);
+
+    /**
+     * 吊销整个令牌家族
+     *
+     * @param familyId 令牌家族ID
+     * @return 影响行数
+     */
+    @Update("UPDATE refresh_token SET revoked = 1 WHERE family_id = #{familyId} AND revoked = 0")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * 吊销用户的所有刷新令牌
+     *
+     * @param userId 用户ID
+     * @return 影响行数
+     */
+    @Update("UPDATE refresh_token SET revoked = 1 WHERE user_id = #{userId} AND revoked = 0")
+    int revokeByUser(@Param("userId") Long userId);
+}
@@ -2,11 +2,45 @@ package com.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.blog.entity.SiteStatistics;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 网站统计Mapper接口
  */
 @Mapper
 public interface SiteStatisticsMapper extends BaseMapper<SiteStatistics> {
+
+    /**
+     * 批量写入每日UV及其草图（记录不存在时创建，PV等其他字段保持不变）
+     *
+     * @param statistics 统计记录（只使用statisticDate、uv、uvSketch）
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO site_statistics (statistic_date, uv, uv_sketch) VALUES "
+            + "<foreach collection='statistics' item='s' separator=','>"
+            + "(#{s.statisticDate}, #{s.uv}, #{s.uvSketch})"
+            + "</foreach>"
+            + " ON DUPLICATE KEY UPDATE uv = VALUES(uv), uv_sketch = VALUES(uv_sketch)"
+            + "</script>")
+    int upsertUvSketches(@Param("statistics") List<SiteStatistics> statistics);
+
+    /**
+     * 批量写入每日PV、UV、新用户数（UV草图保持不变）
+     *
+     * @param statistics 统计记录
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO site_statistics (statistic_date, pv, uv, new_users) VALUES "
+            + "<foreach collection='statistics' item='s' separator=','>"
+            + "(#{s.statisticDate}, #{s.pv}, #{s.uv}, #{s.newUsers})"
+            + "</foreach>"
+            + " ON DUPLICATE KEY UPDATE pv = VALUES(pv), uv = VALUES(uv), new_users = VALUES(new_users)"
+            + "</script>")
+    int upsertDailyStatistics(@Param("statistics") List<SiteStatistics> statistics);
 }
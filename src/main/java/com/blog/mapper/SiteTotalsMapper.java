@@ -0,0 +1,55 @@
+package com.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.SiteTotals;
+import com.blog.entity.SiteTotalsDrift;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 全站累计计数Mapper接口
+ */
+@Mapper
+public interface SiteTotalsMapper extends BaseMapper<SiteTotals> {
+
+    /**
+     * 累加计数（相对更新，不会丢失并发的增量）
+     *
+     * @param articles 文章数增量
+     * @param users    用户数增量
+     * @param comments 评论数增量
+     * @param views    浏览量增量
+     * @return 影响行数（计数行不存在时为0）
+     */
+    @Update("UPDATE site_totals SET total_articles = total_articles + #{articles}, "
+            + "total_users = total_users + #{users}, total_comments = total_comments + #{comments}, "
+            + "total_views = total_views + #{views} WHERE id = 1")
+    int increment(@Param("articles") long articles, @Param("users") long users,
+                  @Param("comments") long comments, @Param("views") long views);
+
+    /**
+     * 在同一条语句中读取计数行和源表的实际累计值
+     * 单条语句使用同一个一致性快照，记录值与实际值对应同一时刻；普通一致性读，不锁计数行
+     *
+     * @return 记录值和实际值，计数行不存在时返回null
+     */
+    @Select("SELECT t.total_articles, t.total_users, t.total_comments, t.total_views, "
+            + "(SELECT COUNT(*) FROM article WHERE is_deleted = 0) AS actual_total_articles, "
+            + "(SELECT COUNT(*) FROM user WHERE is_deleted = 0) AS actual_total_users, "
+            + "(SELECT COUNT(*) FROM comment WHERE is_deleted = 0) AS actual_total_comments, "
+            + "(SELECT COALESCE(SUM(view_count), 0) FROM article WHERE is_deleted = 0) AS actual_total_views "
+            + "FROM site_totals t WHERE t.id = 1")
+    SiteTotalsDrift selectDrift();
+
+    /**
+     * 计数行不存在时写入全0的初始行（已存在时忽略），之后由核对按偏差修正
+     *
+     * @return 影响行数
+     */
+    @Insert("INSERT IGNORE INTO site_totals (id, total_articles, total_users, total_comments, total_views) "
+            + "VALUES (1, 0, 0, 0, 0)")
+    int insertSeed();
+}
@@ -2,11 +2,38 @@ package com.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.blog.entity.Tag;
+import com.blog.entity.TagCountDrift;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 标签Mapper接口
  */
 @Mapper
 public interface TagMapper extends BaseMapper<Tag> {
+
+    /**
+     * 查询关联文章数与实际不一致的标签（只统计未删除的文章），普通一致性读，不加锁
+     *
+     * @return 存在偏差的标签
+     */
+    @Select("SELECT t.id AS tag_id, COALESCE(t.count, 0) AS count, COALESCE(x.cnt, 0) AS actual_count FROM tag t "
+            + "LEFT JOIN (SELECT at.tag_id, COUNT(*) AS cnt FROM article_tag at "
+            + "JOIN article a ON a.id = at.article_id AND a.is_deleted = 0 GROUP BY at.tag_id) x ON x.tag_id = t.id "
+            + "WHERE COALESCE(t.count, 0) <> COALESCE(x.cnt, 0)")
+    List<TagCountDrift> selectCountDrifts();
+
+    /**
+     * 按偏差相对修正标签关联文章数
+     *
+     * @param tagId 标签ID
+     * @param delta 修正量
+     * @return 影响行数
+     */
+    @Update("UPDATE tag SET count = COALESCE(count, 0) + #{delta} WHERE id = #{tagId}")
+    int adjustCount(@Param("tagId") Long tagId, @Param("delta") int delta);
 }
@@ -0,0 +1,27 @@
+package com.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.TokenRevocation;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token吊销Mapper接口
+ */
+@Mapper
+public interface TokenRevocationMapper extends BaseMapper<TokenRevocation> {
+
+    /**
+     * 写入用户的吊销截止时间（截止时间只前进不后退）
+     *
+     * @param userId        用户ID
+     * @param revokedBefore 吊销截止时间
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO token_revocation (user_id, revoked_before) VALUES (#{userId}, #{revokedBefore}) "
+            + "ON DUPLICATE KEY UPDATE revoked_before = GREATEST(revoked_before, VALUES(revoked_before))")
+    int upsert(@Param("userId") Long userId, @Param("revokedBefore") LocalDateTime revokedBefore);
+}
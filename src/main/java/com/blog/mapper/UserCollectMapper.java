@@ -2,11 +2,34 @@ package com.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.blog.entity.UserCollect;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 /**
  * 用户收藏Mapper接口
  */
 @Mapper
 public interface UserCollectMapper extends BaseMapper<UserCollect> {
+
+    /**
+     * 添加收藏记录，已存在时忽略（依赖uk_user_article唯一索引）
+     *
+     * @param userId    用户ID
+     * @param articleId 文章ID
+     * @return 影响行数（已收藏时为0）
+     */
+    @Insert("INSERT IGNORE INTO user_collect (user_id, article_id) VALUES (#{userId}, #{articleId})")
+    int insertIgnore(@Param("userId") Long userId, @Param("articleId") Long articleId);
+
+    /**
+     * 删除收藏记录
+     *
+     * @param userId    用户ID
+     * @param articleId 文章ID
+     * @return 影响行数（未收藏时为0）
+     */
+    @Delete("DELETE FROM user_collect WHERE user_id = #{userId} AND article_id = #{articleId}")
+    int deleteByUserAndArticle(@Param("userId") Long userId, @Param("articleId") Long articleId);
 }
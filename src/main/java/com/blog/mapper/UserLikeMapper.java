@@ -2,11 +2,34 @@ package com.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.blog.entity.UserLike;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 /**
  * 用户点赞Mapper接口
  */
 @Mapper
 public interface UserLikeMapper extends BaseMapper<UserLike> {
+
+    /**
+     * 添加点赞记录，已存在时忽略（依赖uk_user_article唯一索引）
+     *
+     * @param userId    用户ID
+     * @param articleId 文章ID
+     * @return 影响行数（已点赞时为0）
+     */
+    @Insert("INSERT IGNORE INTO user_like (user_id, article_id) VALUES (#{userId}, #{articleId})")
+    int insertIgnore(@Param("userId") Long userId, @Param("articleId") Long articleId);
+
+    /**
+     * 删除点赞记录
+     *
+     * @param userId    用户ID
+     * @param articleId 文章ID
+     * @return 影响行数（未点赞时为0）
+     */
+    @Delete("DELETE FROM user_like WHERE user_id = #{userId} AND article_id = #{articleId}")
+    int deleteByUserAndArticle(@Param("userId") Long userId, @Param("articleId") Long articleId);
 }
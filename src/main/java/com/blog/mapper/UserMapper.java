@@ -1,12 +1,43 @@
 package com.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.SiteStatistics;
 import com.blog.entity.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户Mapper接口
  */
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
+
+    /**
+     * 按天统计时间区间内的新注册用户数（一次扫描，不含已删除用户）
+     *
+     * @param start 开始时间（包含）
+     * @param end   结束时间（不包含）
+     * @return 每天一条记录（只填充statisticDate和newUsers），没有注册的日期不返回
+     */
+    @Select("SELECT DATE(created_at) AS statistic_date, COUNT(*) AS new_users FROM user "
+            + "WHERE is_deleted = 0 AND created_at >= #{start} AND created_at < #{end} GROUP BY DATE(created_at)")
+    List<SiteStatistics> countNewUsersByDate(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 替换密码哈希（仅当存储的哈希仍为oldPassword时，避免覆盖期间修改过的密码）
+     *
+     * @param id          用户ID
+     * @param oldPassword 原哈希值
+     * @param newPassword 新哈希值
+     * @return 影响行数
+     */
+    @Update("UPDATE user SET password = #{newPassword}, updated_at = updated_at "
+            + "WHERE id = #{id} AND password = #{oldPassword}")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
 }
@@ -1,5 +1,6 @@
 package com.blog.security;
 
+import com.blog.service.TokenRevocationService;
 import com.blog.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,6 +28,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -35,22 +39,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 从请求头中获取Token
             String token = getTokenFromRequest(request);
 
-            // 验证Token
-            if (StringUtils.hasText(token) && jwtUtil.validateToken(token)) {
-                // 从Token中获取用户信息
-                String username = jwtUtil.getUsernameFromToken(token);
-                Long userId = jwtUtil.getUserIdFromToken(token);
-                Boolean isAdmin = jwtUtil.getIsAdminFromToken(token);
-
-                // 根据是否管理员设置角色
-                String role = (isAdmin != null && isAdmin) ? "ROLE_ADMIN" : "ROLE_USER";
-
+            // 验证Token（一次解析完成签名校验、过期检查和声明提取），再检查是否已被吊销（内存查找）
+            JwtPrincipal principal = StringUtils.hasText(token) ? jwtUtil.verify(token) : null;
+            if (principal != null && !tokenRevocationService.isRevoked(principal)) {
                 // 创建认证对象
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                username,
+                                principal.username(),
                                 null,
-                                Collections.singletonList(new SimpleGrantedAuthority(role))
+                                Collections.singletonList(new SimpleGrantedAuthority(principal.role()))
                         );
 
                 // 设置详细信息
@@ -60,7 +57,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
                 // 将userId存入请求属性，方便后续使用
-                request.setAttribute("userId", userId);
+                request.setAttribute("userId", principal.userId());
             }
         } catch (Exception e) {
             logger.error("JWT认证失败: " + e.getMessage());
@@ -0,0 +1,30 @@
+package com.blog.security;
+
+/**
+ * 已验证的JWT中的用户身份
+ *
+ * @param userId    用户ID
+ * @param username  用户名
+ * @param admin     是否管理员
+ * @param issuedAt  签发时间（毫秒时间戳）
+ * @param expiresAt 过期时间（毫秒时间戳）
+ */
+public record JwtPrincipal(Long userId, String username, boolean admin, long issuedAt, long expiresAt) {
+
+    /**
+     * 对应的Spring Security角色
+     */
+    public String role() {
+        return admin ? "ROLE_ADMIN" : "ROLE_USER";
+    }
+
+    /**
+     * 在指定时间是否已过期
+     *
+     * @param nowMillis 当前时间（毫秒时间戳）
+     * @return true=已过期
+     */
+    public boolean isExpiredAt(long nowMillis) {
+        return expiresAt <= nowMillis;
+    }
+}
@@ -1,6 +1,8 @@
 package com.blog.security;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -19,6 +21,7 @@ import java.util.Arrays;
 /**
  * Spring Security配置类
  */
+@Slf4j
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -26,12 +29,46 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    /**
+     * 用于校准BCrypt成本的采样次数（取最快一次，排除JIT预热和调度抖动）
+     */
+    private static final int CALIBRATION_SAMPLES = 3;
+
     /**
      * 密码编码器
+     * strength为0时按target-ms在启动时校准：测量最低成本的哈希耗时，成本每加1耗时翻倍
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.hashing.strength:0}") int strength,
+                                           @Value("${auth.hashing.target-ms:250}") long targetMs,
+                                           @Value("${auth.hashing.min-strength:10}") int minStrength,
+                                           @Value("${auth.hashing.max-strength:14}") int maxStrength) {
+        if (strength <= 0) {
+            strength = calibrateStrength(targetMs, minStrength, maxStrength);
+        }
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * 选择哈希耗时不超过targetMs的最高BCrypt成本（限制在[minStrength, maxStrength]内）
+     */
+    private int calibrateStrength(long targetMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        double baseMs = bestNanos / 1_000_000.0;
+        int strength = minStrength;
+        while (strength < maxStrength && baseMs * (1L << (strength + 1 - minStrength)) <= targetMs) {
+            strength++;
+        }
+        log.info("BCrypt成本校准完成 - 成本{}耗时: {}ms, 目标: {}ms, 选定成本: {}（预计{}ms）",
+                minStrength, String.format("%.1f", baseMs), targetMs, strength,
+                String.format("%.1f", baseMs * (1L << (strength - minStrength))));
+        return strength;
     }
 
     /**
@@ -88,6 +125,8 @@ public class SecurityConfig {
                                 "/api/articles/*",           // 文章详情
                                 "/api/articles/search",      // 文章搜索
                                 "/api/comments/article/*",   // 评论列表
+                                "/api/comments/article/*/cursor", // 评论列表（游标分页）
+                                "/api/comments/*/replies",   // 评论回复列表
                                 "/api/users/*",              // 用户信息
                                 "/api/access-log/**"         // 访问日志
                         ).permitAll()
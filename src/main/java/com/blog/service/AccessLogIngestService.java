@@ -0,0 +1,189 @@
+package com.blog.service;
+
+import com.blog.entity.AccessLog;
+import com.blog.mapper.AccessLogMapper;
+import com.blog.util.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * 访问日志异步写入服务
+ * 请求线程只把日志放入有界无锁环形队列，由单独的写入线程攒批后多行插入，
+ * 攒满batch-size条或最早一条等待超过max-delay-ms时写入。
+ * 队列满（数据库写入跟不上）时按overflow-policy处理：drop=丢弃并计数，caller-runs=在请求线程同步写入。
+ */
+@Slf4j
+@Service
+public class AccessLogIngestService {
+
+    /**
+     * 队列为空时写入线程的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * 关闭时等待写入线程清空队列的最长时间（毫秒）
+     */
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    @Autowired
+    private AccessLogMapper accessLogMapper;
+
+    @Autowired
+    private UvSketchService uvSketchService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Value("${access-log.ingest.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${access-log.ingest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${access-log.ingest.max-delay-ms:500}")
+    private long maxDelayMs;
+
+    @Value("${access-log.ingest.overflow-policy:drop}")
+    private String overflowPolicy;
+
+    private MpscRingBuffer<AccessLog> buffer;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(bufferSize);
+        running = true;
+        worker = new Thread(this::runWorker, "access-log-ingest");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("访问日志写入线程已启动 - 队列容量: {}, 批大小: {}, 最大延迟: {}ms, 溢出策略: {}",
+                buffer.capacity(), batchSize, maxDelayMs, overflowPolicy);
+    }
+
+    /**
+     * 停止接收并等待写入线程写完队列中剩余的日志
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(SHUTDOWN_TIMEOUT_MS);
+        if (worker.isAlive()) {
+            log.warn("访问日志写入线程未能在{}ms内退出，剩余日志: {}", SHUTDOWN_TIMEOUT_MS, buffer.size());
+        }
+        log.info("访问日志写入线程已停止 - 累计写入: {}, 丢弃: {}, 失败: {}", written.sum(), dropped.sum(), failed.sum());
+    }
+
+    /**
+     * 提交一条访问日志（不阻塞等待数据库写入）
+     *
+     * @param accessLog 访问日志（createdAt应已在采集时设置）
+     */
+    public void submit(AccessLog accessLog) {
+        if (running && buffer.offer(accessLog)) {
+            accepted.increment();
+            return;
+        }
+
+        if ("caller-runs".equalsIgnoreCase(overflowPolicy)) {
+            // 背压：由请求线程同步写入
+            callerRuns.increment();
+            write(Collections.singletonList(accessLog));
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * 获取写入统计数据
+     *
+     * @return 统计数据
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("accepted", accepted.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("callerRuns", callerRuns.sum());
+        stats.put("written", written.sum());
+        stats.put("failed", failed.sum());
+        stats.put("batches", batches.sum());
+        stats.put("overflowPolicy", overflowPolicy);
+        return stats;
+    }
+
+    /**
+     * 写入线程主循环：攒批，满批或超时后写入；停止后写完剩余日志再退出
+     */
+    private void runWorker() {
+        List<AccessLog> batch = new ArrayList<>(batchSize);
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        long batchStartNanos = 0;
+
+        while (running || !buffer.isEmpty() || !batch.isEmpty()) {
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (wasEmpty && !batch.isEmpty()) {
+                batchStartNanos = System.nanoTime();
+            }
+
+            boolean full = batch.size() >= batchSize;
+            boolean expired = !batch.isEmpty() && System.nanoTime() - batchStartNanos >= maxDelayNanos;
+            if (full || expired || (!running && !batch.isEmpty())) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+                continue;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * 更新UV草图后执行一次多行插入，插入失败时丢弃该批并计数（访问日志不影响业务）
+     */
+    private void write(List<AccessLog> logs) {
+        try {
+            uvSketchService.record(logs);
+        } catch (Exception e) {
+            log.warn("UV草图更新失败: {}", e.toString());
+        }
+
+        try {
+            accessLogMapper.insertBatch(logs);
+            written.add(logs.size());
+            batches.increment();
+            statisticsService.markDirty(logs.stream()
+                    .map(accessLog -> accessLog.getCreatedAt().toLocalDate())
+                    .collect(Collectors.toSet()));
+        } catch (Exception e) {
+            failed.add(logs.size());
+            log.error("访问日志写入失败 - 条数: {}, 原因: {}", logs.size(), e.toString());
+        }
+    }
+}
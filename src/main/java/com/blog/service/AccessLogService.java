@@ -1,15 +1,14 @@
 package com.blog.service;
 
 import com.blog.entity.AccessLog;
-import com.blog.entity.Article;
-import com.blog.mapper.AccessLogMapper;
-import com.blog.mapper.ArticleMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.time.LocalDateTime;
+
 /**
  * 访问日志服务类
  */
@@ -17,14 +16,28 @@ import jakarta.servlet.http.HttpServletRequest;
 @Service
 public class AccessLogService {
 
+    /**
+     * ip_address列长度
+     */
+    private static final int MAX_IP_LENGTH = 50;
+
+    /**
+     * user_agent列长度
+     */
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+
+    @Autowired
+    private AccessLogIngestService accessLogIngestService;
+
     @Autowired
-    private AccessLogMapper accessLogMapper;
+    private ArticleService articleService;
 
     @Autowired
-    private ArticleMapper articleMapper;
+    private ViewCountService viewCountService;
 
     /**
      * 记录访问日志并增加文章浏览量
+     * 日志进入异步写入队列，浏览量在内存中累加，请求线程不等待数据库写入
      *
      * @param articleId 文章ID
      * @param userId    用户ID（可为null）
@@ -32,29 +45,36 @@ public class AccessLogService {
      */
     public void logAccess(Long articleId, Long userId, HttpServletRequest request) {
         try {
-            // 1. 记录访问日志
+            // 1. 过滤不存在的文章（批量插入中一条外键失败会导致整批失败）
+            if (!articleService.existsArticle(articleId)) {
+                log.debug("忽略不存在文章的访问 - 文章ID: {}", articleId);
+                return;
+            }
+
+            // 2. 采集访问日志，访问时间取采集时刻而非写入时刻
             AccessLog accessLog = new AccessLog();
             accessLog.setArticleId(articleId);
             accessLog.setUserId(userId);
-            accessLog.setIpAddress(getClientIpAddress(request));
-            accessLog.setUserAgent(request.getHeader("User-Agent"));
-
-            accessLogMapper.insert(accessLog);
-            log.debug("记录访问日志成功 - 文章ID: {}, IP: {}", articleId, accessLog.getIpAddress());
-
-            // 2. 增加文章浏览量
-            Article article = articleMapper.selectById(articleId);
-            if (article != null) {
-                article.setViewCount(article.getViewCount() + 1);
-                articleMapper.updateById(article);
-                log.debug("增加文章浏览量成功 - 文章ID: {}, 当前浏览量: {}", articleId, article.getViewCount());
-            }
+            accessLog.setIpAddress(truncate(getClientIpAddress(request), MAX_IP_LENGTH));
+            accessLog.setUserAgent(truncate(request.getHeader("User-Agent"), MAX_USER_AGENT_LENGTH));
+            accessLog.setCreatedAt(LocalDateTime.now());
+            accessLogIngestService.submit(accessLog);
+
+            // 3. 增加文章浏览量（内存累加，定时批量写回）
+            viewCountService.increment(articleId);
         } catch (Exception e) {
             log.error("记录访问日志失败 - 文章ID: {}", articleId, e);
             // 不抛出异常，避免影响正常业务
         }
     }
 
+    /**
+     * 截断超出列长度的字符串
+     */
+    private String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
     /**
      * 获取客户端真实IP地址
      * 考虑了代理和负载均衡的情况
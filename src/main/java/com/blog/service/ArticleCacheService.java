@@ -0,0 +1,110 @@
+package com.blog.service;
+
+import com.blog.dto.ArticleVO;
+import com.blog.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 文章详情缓存服务
+ * 缓存与访问者无关的文章详情（内容、作者、标签），按内容字节数限制总容量，
+ * 作者信息读取时从用户摘要缓存叠加（快照中的作者只用于取作者ID），
+ * 淘汰策略为Caffeine默认的W-TinyLFU
+ */
+@Slf4j
+@Service
+public class ArticleCacheService {
+
+    /**
+     * 每个缓存项除内容外的估算开销（字节）
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    @Value("${cache.article.max-weight-bytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${cache.article.expire-after-write-minutes:60}")
+    private long expireAfterWriteMinutes;
+
+    private Cache<Long, ArticleVO> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long articleId, ArticleVO article) -> weigh(article))
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build();
+        log.info("文章详情缓存初始化完成 - 最大容量: {} 字节", maxWeightBytes);
+    }
+
+    /**
+     * 获取文章详情快照，未命中时通过loader加载
+     * 返回的对象为共享快照，调用方不得修改
+     *
+     * @param articleId 文章ID
+     * @param loader    加载函数（返回null表示文章不存在，不会被缓存）
+     * @return 文章详情快照，不存在时返回null
+     */
+    public ArticleVO get(Long articleId, Function<Long, ArticleVO> loader) {
+        return cache.get(articleId, loader);
+    }
+
+    /**
+     * 使文章缓存失效
+     * 立即失效一次；存在事务时在提交后再失效一次，避免事务窗口内被旧数据重新填充
+     *
+     * @param articleId 文章ID
+     */
+    public void evict(Long articleId) {
+        cache.invalidate(articleId);
+        TransactionUtil.afterCommit(() -> cache.invalidate(articleId));
+    }
+
+    /**
+     * 获取缓存统计信息（命中率、淘汰数、加载耗时等）
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("estimatedSize", cache.estimatedSize());
+        result.put("weightedSizeBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        result.put("maxWeightBytes", maxWeightBytes);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("evictionWeightBytes", stats.evictionWeight());
+        result.put("loadSuccessCount", stats.loadSuccessCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    /**
+     * 计算缓存项权重（按内容的UTF-8字节数）
+     */
+    private int weigh(ArticleVO article) {
+        long bytes = ENTRY_OVERHEAD_BYTES;
+        if (article.getContent() != null) {
+            bytes += article.getContent().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,506 @@
+package com.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.blog.entity.Article;
+import com.blog.exception.BusinessException;
+import com.blog.mapper.ArticleMapper;
+import com.blog.util.CjkBigramAnalyzer;
+import com.blog.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 文章全文检索服务
+ * 基于Lucene的嵌入式倒排索引：CJK二元分词，BM25排序，索引段持久化在本地磁盘，
+ * 文章增删改后增量更新，增量更新失败时标记索引待修复并由定时任务全量重建；
+ * 重启时直接打开已有索引，文档数与文章数不一致或上次运行标记了待重建时全量重建
+ */
+@Slf4j
+@Service
+public class ArticleSearchService {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_SUMMARY = "summary";
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_TAG = "tag";
+
+    /**
+     * 重建索引时每批加载的文章数
+     */
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    /**
+     * 全量重建时临时索引目录的后缀
+     */
+    private static final String REBUILD_DIRECTORY_SUFFIX = "-rebuild";
+
+    /**
+     * 索引提交数据中的待重建标记
+     */
+    private static final String COMMIT_DIRTY = "dirty";
+
+    @Value("${search.index-path:data/search-index}")
+    private String indexPath;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private TagService tagService;
+
+    /**
+     * 建索引用分词器（二元词 + 单字）
+     */
+    private final Analyzer indexAnalyzer = new CjkBigramAnalyzer(true);
+
+    /**
+     * 查询用分词器（仅二元词，孤立单字除外）
+     */
+    private final Analyzer queryAnalyzer = new CjkBigramAnalyzer(false);
+
+    private FSDirectory directory;
+
+    private volatile IndexWriter indexWriter;
+
+    private volatile SearcherManager searcherManager;
+
+    /**
+     * 索引是否与数据库不一致（增量更新或构建失败），由定时任务全量重建
+     * 同时写入索引的提交数据，重启后仍会修复
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    /**
+     * 保证同一时刻只有一次全量重建
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * 是否正在全量重建（读写在this监视器内）
+     */
+    private boolean rebuilding = false;
+
+    /**
+     * 全量重建期间增量更新过的文章，替换索引后按数据库重新同步（读写在this监视器内）
+     */
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexPath));
+        openWriter();
+        for (Map.Entry<String, String> entry : indexWriter.getLiveCommitData()) {
+            if (COMMIT_DIRTY.equals(entry.getKey()) && Boolean.parseBoolean(entry.getValue())) {
+                dirty.set(true);
+            }
+        }
+        log.info("全文索引已打开 - 路径: {}, 文档数: {}, 待重建: {}", indexPath, indexWriter.getDocStats().numDocs, dirty.get());
+    }
+
+    /**
+     * 启动后校验索引：上次运行标记了待重建，或文档数与未删除的文章数不一致时（首次启动、索引目录被清理、
+     * 数据库提交后未来得及更新索引就宕机等）从数据库全量重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        try {
+            long indexed = indexWriter.getDocStats().numDocs;
+            LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(Article::getIsDeleted, 0);
+            long expected = articleMapper.selectCount(wrapper);
+            if (!dirty.get() && indexed == expected) {
+                return;
+            }
+            log.info("全文索引与数据库不一致，开始重建 - 索引文档数: {}, 文章数: {}, 待重建: {}",
+                    indexed, expected, dirty.get());
+            dirty.set(false);
+            rebuild();
+        } catch (Exception e) {
+            markDirty();
+            log.warn("全文索引校验或构建失败，将由定时任务重试: {}", e.toString());
+        }
+    }
+
+    /**
+     * 索引被标记为不一致时全量重建
+     * 重建失败时保留标记，下个周期重试
+     */
+    @Scheduled(fixedDelayString = "${search.repair-interval-ms:60000}")
+    public void repairIfDirty() {
+        if (!dirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            markDirty();
+            log.warn("全文索引重建失败，将在下个周期重试: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    /**
+     * 从数据库全量重建索引
+     * 先在临时目录中构建完整的新索引（扫描数据库期间不持有索引锁，增量更新照常写入当前索引），
+     * 再在索引锁内一次性替换当前索引的内容并提交；替换失败时回滚到上次提交，当前索引不受影响
+     */
+    public void rebuild() throws IOException {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                rebuilding = true;
+                changedDuringRebuild.clear();
+            }
+            Path tempPath = Paths.get(indexPath + REBUILD_DIRECTORY_SUFFIX);
+            try (FSDirectory tempDirectory = FSDirectory.open(tempPath)) {
+                int total;
+                IndexWriterConfig config = new IndexWriterConfig(indexAnalyzer);
+                config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+                try (IndexWriter tempWriter = new IndexWriter(tempDirectory, config)) {
+                    total = addAllArticles(tempWriter);
+                    tempWriter.commit();
+                }
+                replaceWith(tempDirectory);
+                log.info("全文索引重建完成 - 文档数: {}", total);
+            } finally {
+                synchronized (this) {
+                    rebuilding = false;
+                    changedDuringRebuild.clear();
+                }
+                try {
+                    IOUtils.rm(tempPath);
+                } catch (IOException e) {
+                    log.warn("清理全文索引临时目录失败: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * 事务提交后（重新）索引文章
+     * 失败时标记索引待修复，由定时任务全量重建
+     *
+     * @param articleId 文章ID
+     */
+    public void indexArticle(Long articleId) {
+        TransactionUtil.afterCommit(() -> {
+            try {
+                Article article = articleMapper.selectById(articleId);
+                List<String> tags = article != null ? tagService.getArticleTags(articleId) : null;
+                synchronized (this) {
+                    recordChange(articleId);
+                    writeDocument(articleId, article, tags);
+                    commit();
+                }
+            } catch (Exception e) {
+                markDirty();
+                log.error("索引文章失败，已标记索引待重建 - 文章ID: {}", articleId, e);
+            }
+        });
+    }
+
+    /**
+     * 事务提交后从索引中删除文章
+     * 失败时标记索引待修复，由定时任务全量重建
+     *
+     * @param articleId 文章ID
+     */
+    public void removeArticle(Long articleId) {
+        TransactionUtil.afterCommit(() -> {
+            try {
+                synchronized (this) {
+                    recordChange(articleId);
+                    writeDocument(articleId, null, null);
+                    commit();
+                }
+            } catch (Exception e) {
+                markDirty();
+                log.error("删除文章索引失败，已标记索引待重建 - 文章ID: {}", articleId, e);
+            }
+        });
+    }
+
+    /**
+     * 全文检索，按BM25相关度排序
+     *
+     * @param keyword      搜索关键词
+     * @param tags         标签筛选（可为空）
+     * @param matchAllTags 是否需要同时带有全部标签
+     * @param page         页码
+     * @param pageSize     每页数量
+     * @return 命中的文章ID分页（records为当前页文章ID，按相关度排序）
+     */
+    public Page<Long> search(String keyword, List<String> tags, boolean matchAllTags, int page, int pageSize) {
+        Page<Long> result = new Page<>(page, pageSize);
+        result.setRecords(new ArrayList<>());
+
+        Query query = buildQuery(keyword, tags, matchAllTags);
+        if (query == null) {
+            result.setTotal(0);
+            return result;
+        }
+
+        SearcherManager manager = searcherManager;
+        IndexSearcher searcher = null;
+        try {
+            searcher = manager.acquire();
+            int start = (page - 1) * pageSize;
+            TopDocs topDocs = searcher.search(query, start + pageSize);
+            result.setTotal(topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? topDocs.totalHits.value
+                    : searcher.count(query));
+
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = start; i < scoreDocs.length; i++) {
+                Document document = storedFields.document(scoreDocs[i].doc, Collections.singleton(FIELD_ID));
+                result.getRecords().add(Long.valueOf(document.get(FIELD_ID)));
+            }
+            return result;
+        } catch (IOException e) {
+            log.error("全文检索失败 - 关键词: {}", keyword, e);
+            throw new BusinessException("搜索服务暂不可用");
+        } finally {
+            if (searcher != null) {
+                try {
+                    manager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("释放索引搜索器失败: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * 构建查询：标题、摘要、正文中任一字段包含全部关键词即命中，取最高分字段
+     *
+     * @return 查询对象，关键词分词后为空时返回null
+     */
+    private Query buildQuery(String keyword, List<String> tags, boolean matchAllTags) {
+        QueryBuilder builder = new QueryBuilder(queryAnalyzer);
+        List<Query> fieldQueries = new ArrayList<>();
+        addFieldQuery(fieldQueries, builder.createBooleanQuery(FIELD_TITLE, keyword, BooleanClause.Occur.MUST), 3.0f);
+        addFieldQuery(fieldQueries, builder.createBooleanQuery(FIELD_SUMMARY, keyword, BooleanClause.Occur.MUST), 2.0f);
+        addFieldQuery(fieldQueries, builder.createBooleanQuery(FIELD_CONTENT, keyword, BooleanClause.Occur.MUST), 1.0f);
+        if (fieldQueries.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new DisjunctionMaxQuery(fieldQueries, 0.1f), BooleanClause.Occur.MUST);
+
+        // 标签筛选（不参与打分）
+        if (!CollectionUtils.isEmpty(tags)) {
+            if (matchAllTags) {
+                for (String tag : tags) {
+                    query.add(new TermQuery(new Term(FIELD_TAG, tag)), BooleanClause.Occur.FILTER);
+                }
+            } else {
+                BooleanQuery.Builder anyTag = new BooleanQuery.Builder();
+                for (String tag : tags) {
+                    anyTag.add(new TermQuery(new Term(FIELD_TAG, tag)), BooleanClause.Occur.SHOULD);
+                }
+                query.add(anyTag.build(), BooleanClause.Occur.FILTER);
+            }
+        }
+        return query.build();
+    }
+
+    private void addFieldQuery(List<Query> fieldQueries, Query query, float boost) {
+        if (query != null) {
+            fieldQueries.add(new BoostQuery(query, boost));
+        }
+    }
+
+    /**
+     * 将文章转换为索引文档
+     */
+    private Document toDocument(Article article, List<String> tags) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, String.valueOf(article.getId()), Field.Store.YES));
+        document.add(new TextField(FIELD_TITLE, nullToEmpty(article.getTitle()), Field.Store.NO));
+        document.add(new TextField(FIELD_SUMMARY, nullToEmpty(article.getSummary()), Field.Store.NO));
+        document.add(new TextField(FIELD_CONTENT, nullToEmpty(article.getContent()), Field.Store.NO));
+        for (String tag : tags) {
+            document.add(new StringField(FIELD_TAG, tag, Field.Store.NO));
+        }
+        return document;
+    }
+
+    /**
+     * 分批从数据库读取未删除的文章写入索引
+     *
+     * @return 写入的文档数
+     */
+    private int addAllArticles(IndexWriter writer) throws IOException {
+        long lastId = 0;
+        int total = 0;
+        while (true) {
+            LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(Article::getId, Article::getTitle, Article::getSummary, Article::getContent)
+                    .eq(Article::getIsDeleted, 0)
+                    .gt(Article::getId, lastId)
+                    .orderByAsc(Article::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<Article> articles = articleMapper.selectList(wrapper);
+            if (articles.isEmpty()) {
+                return total;
+            }
+
+            Map<Long, List<String>> tags = tagService.getArticleTagsMap(
+                    articles.stream().map(Article::getId).collect(Collectors.toList()));
+            for (Article article : articles) {
+                writer.addDocument(toDocument(article,
+                        tags.getOrDefault(article.getId(), Collections.emptyList())));
+            }
+
+            total += articles.size();
+            lastId = articles.get(articles.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 用临时目录中构建好的索引替换当前索引的内容，并重新同步重建期间增量更新过的文章
+     * 删除、导入、同步在一次提交中生效；任一步失败时回滚未提交的修改并重新打开索引
+     */
+    private synchronized void replaceWith(Directory source) throws IOException {
+        try {
+            indexWriter.deleteAll();
+            indexWriter.addIndexes(source);
+            for (Long articleId : changedDuringRebuild) {
+                Article article = articleMapper.selectById(articleId);
+                writeDocument(articleId, article, article != null ? tagService.getArticleTags(articleId) : null);
+            }
+            commit();
+        } catch (IOException | RuntimeException e) {
+            rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * 全量重建期间记录增量更新过的文章（需持有this监视器）
+     */
+    private void recordChange(Long articleId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(articleId);
+        }
+    }
+
+    /**
+     * 写入或删除文章的索引文档（不提交，需持有this监视器）
+     *
+     * @param article 文章，不存在或已删除时删除文档
+     */
+    private void writeDocument(Long articleId, Article article, List<String> tags) throws IOException {
+        Term idTerm = new Term(FIELD_ID, String.valueOf(articleId));
+        if (article == null || article.getIsDeleted() == 1) {
+            indexWriter.deleteDocuments(idTerm);
+        } else {
+            indexWriter.updateDocument(idTerm, toDocument(article, tags));
+        }
+    }
+
+    /**
+     * 提交到磁盘并刷新搜索器，使修改对后续查询可见（需持有this监视器）
+     * 提交数据中记录待重建标记，重启后仍会修复
+     */
+    private void commit() throws IOException {
+        indexWriter.setLiveCommitData(Map.of(COMMIT_DIRTY, String.valueOf(dirty.get())).entrySet());
+        indexWriter.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * 标记索引待重建，并尽量持久化到索引的提交数据
+     */
+    private void markDirty() {
+        dirty.set(true);
+        try {
+            synchronized (this) {
+                commit();
+            }
+        } catch (Exception e) {
+            log.warn("持久化全文索引待重建标记失败: {}", e.toString());
+        }
+    }
+
+    /**
+     * 丢弃未提交的修改（回滚会关闭IndexWriter），从上次提交重新打开索引（需持有this监视器）
+     */
+    private void rollback() {
+        SearcherManager oldSearcherManager = searcherManager;
+        try {
+            indexWriter.rollback();
+            openWriter();
+            oldSearcherManager.close();
+        } catch (IOException e) {
+            log.error("全文索引回滚后重新打开失败", e);
+        }
+    }
+
+    /**
+     * 打开索引写入器和搜索器
+     */
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(indexAnalyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexWriter = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
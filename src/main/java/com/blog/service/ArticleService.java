@@ -2,7 +2,9 @@ package com.blog.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.dto.ArticleDTO;
+import com.blog.dto.ArticleSummaryVO;
 import com.blog.dto.ArticleVO;
+import com.blog.dto.CursorPage;
 
 /**
  * 文章服务接口
@@ -47,13 +49,34 @@ public interface ArticleService {
     /**
      * 分页查询文章列表
      *
-     * @param page     页码
-     * @param pageSize 每页数量
-     * @param keyword  搜索关键词（可选）
-     * @param tag      标签（可选）
+     * @param page         页码
+     * @param pageSize     每页数量
+     * @param keyword      搜索关键词（可选）
+     * @param tag          标签，多个用逗号分隔（可选）
+     * @param matchAllTags true=需同时带有全部标签，false/null=带有任一标签即可
+     * @param userId       当前用户ID（可为null）
      * @return 文章分页列表
      */
-    Page<ArticleVO> getArticlePage(Integer page, Integer pageSize, String keyword, String tag);
+    Page<ArticleSummaryVO> getArticlePage(Integer page, Integer pageSize, String keyword, String tag,
+                                          Boolean matchAllTags, Long userId);
+
+    /**
+     * 游标分页查询文章列表（按创建时间倒序，不统计总数）
+     *
+     * @param cursor   上一页返回的游标（第一页传null）
+     * @param pageSize 每页数量
+     * @param userId   当前用户ID（可为null）
+     * @return 文章游标分页列表
+     */
+    CursorPage<ArticleSummaryVO> getArticleCursorPage(String cursor, Integer pageSize, Long userId);
+
+    /**
+     * 判断文章是否存在（未删除）
+     *
+     * @param articleId 文章ID
+     * @return 是否存在
+     */
+    boolean existsArticle(Long articleId);
 
     /**
      * 增加文章浏览量
@@ -3,6 +3,7 @@ package com.blog.service;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.dto.CommentDTO;
 import com.blog.dto.CommentVO;
+import com.blog.dto.CursorPage;
 
 /**
  * 评论服务接口
@@ -19,12 +20,13 @@ public interface CommentService {
     Long createComment(CommentDTO commentDTO, Long userId);
 
     /**
-     * 删除评论
+     * 删除评论（连同其下的全部回复）
      *
      * @param commentId 评论ID
      * @param userId    当前用户ID
+     * @return 删除的评论数（含回复）
      */
-    void deleteComment(Long commentId, Long userId);
+    int deleteComment(Long commentId, Long userId);
 
     /**
      * 分页查询文章的评论列表
@@ -35,4 +37,24 @@ public interface CommentService {
      * @return 评论分页列表
      */
     Page<CommentVO> getCommentsByArticleId(Long articleId, Integer page, Integer pageSize);
+
+    /**
+     * 游标分页查询文章的评论列表（按创建时间倒序，不统计总数）
+     *
+     * @param articleId 文章ID
+     * @param cursor    上一页返回的游标（第一页传null）
+     * @param pageSize  每页数量
+     * @return 评论游标分页列表
+     */
+    CursorPage<CommentVO> getCommentCursorPage(Long articleId, String cursor, Integer pageSize);
+
+    /**
+     * 游标分页查询评论子树中的回复（按楼中楼顺序）
+     *
+     * @param commentId 评论ID
+     * @param cursor    上一页返回的游标，或顶层评论的repliesCursor（第一页传null）
+     * @param pageSize  每页数量
+     * @return 回复游标分页列表
+     */
+    CursorPage<CommentVO> getReplies(Long commentId, String cursor, Integer pageSize);
 }
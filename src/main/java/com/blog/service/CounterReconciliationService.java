@@ -0,0 +1,216 @@
+package com.blog.service;
+
+import com.blog.entity.ArticleCounterDrift;
+import com.blog.entity.TagCountDrift;
+import com.blog.exception.BusinessException;
+import com.blog.mapper.ArticleMapper;
+import com.blog.mapper.TagMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 冗余计数核对服务
+ * 重新计算文章的点赞数、收藏数、评论数和标签的关联文章数，只修正与关联表不一致的行。
+ * 文章按ID分段扫描，每段用一条分组查询找出偏差（一致性读，不锁表），再按偏差逐行相对修正；
+ * 每段执行后按max-db-time-ratio休眠，限制核对任务占用的数据库时间。
+ * 浏览量没有可供核对的源数据（浏览不逐条记录），不在核对范围内。
+ */
+@Slf4j
+@Service
+public class CounterReconciliationService {
+
+    /**
+     * 报告中保留的修正明细条数
+     */
+    private static final int MAX_REPORTED_CORRECTIONS = 50;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    /**
+     * 每段核对的文章数
+     */
+    @Value("${reconcile.counters.chunk-size:2000}")
+    private int chunkSize;
+
+    /**
+     * 核对任务允许占用的数据库时间比例（0~1），每段执行后休眠 耗时×(1/比例−1)
+     */
+    @Value("${reconcile.counters.max-db-time-ratio:0.2}")
+    private double maxDbTimeRatio;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "counter-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 最近一次核对的报告
+     */
+    private volatile Map<String, Object> lastReport;
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在后台线程中开始一次核对
+     *
+     * @throws BusinessException 已有核对在执行时抛出
+     */
+    public void startAsync() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("计数核对正在执行中");
+        }
+        executor.execute(() -> {
+            try {
+                doReconcile();
+            } catch (Exception e) {
+                log.error("计数核对失败", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * 获取最近一次核对的报告和当前状态
+     *
+     * @return 核对报告
+     */
+    public Map<String, Object> getLastReport() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("running", running.get());
+        result.put("lastReport", lastReport);
+        return result;
+    }
+
+    private Map<String, Object> doReconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        long dbNanos = 0;
+        long chunks = 0;
+        long likeCorrections = 0;
+        long collectCorrections = 0;
+        long commentCorrections = 0;
+        List<Map<String, Object>> corrections = new ArrayList<>();
+
+        // 1. 按ID分段核对文章计数
+        long afterId = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            long chunkStart = System.nanoTime();
+            Long chunkEnd = articleMapper.selectChunkEnd(afterId, chunkSize);
+            if (chunkEnd == null) {
+                break;
+            }
+            for (ArticleCounterDrift drift : articleMapper.selectCounterDrifts(afterId + 1, chunkEnd)) {
+                int likeDelta = drift.getActualLikeCount() - drift.getLikeCount();
+                int collectDelta = drift.getActualCollectCount() - drift.getCollectCount();
+                int commentDelta = drift.getActualCommentCount() - drift.getCommentCount();
+                articleMapper.adjustCounters(drift.getArticleId(), likeDelta, collectDelta, commentDelta);
+                likeCorrections += likeDelta != 0 ? 1 : 0;
+                collectCorrections += collectDelta != 0 ? 1 : 0;
+                commentCorrections += commentDelta != 0 ? 1 : 0;
+                if (corrections.size() < MAX_REPORTED_CORRECTIONS) {
+                    corrections.add(describe(drift));
+                }
+            }
+            afterId = chunkEnd;
+            chunks++;
+
+            long elapsed = System.nanoTime() - chunkStart;
+            dbNanos += elapsed;
+            throttle(elapsed);
+        }
+
+        // 2. 核对标签关联文章数（标签数量少，一次分组查询）
+        List<TagCountDrift> tagDrifts = tagMapper.selectCountDrifts();
+        List<Map<String, Object>> tagCorrections = new ArrayList<>();
+        for (TagCountDrift drift : tagDrifts) {
+            tagMapper.adjustCount(drift.getTagId(), drift.getActualCount() - drift.getCount());
+            if (tagCorrections.size() < MAX_REPORTED_CORRECTIONS) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("tagId", drift.getTagId());
+                item.put("count", List.of(drift.getCount(), drift.getActualCount()));
+                tagCorrections.add(item);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt);
+        report.put("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        report.put("dbTimeMs", TimeUnit.NANOSECONDS.toMillis(dbNanos));
+        report.put("completed", !Thread.currentThread().isInterrupted());
+        report.put("chunks", chunks);
+        report.put("lastArticleId", afterId);
+        report.put("likeCorrections", likeCorrections);
+        report.put("collectCorrections", collectCorrections);
+        report.put("commentCorrections", commentCorrections);
+        report.put("tagCorrections", tagDrifts.size());
+        report.put("articleSamples", Collections.unmodifiableList(corrections));
+        report.put("tagSamples", Collections.unmodifiableList(tagCorrections));
+        lastReport = Collections.unmodifiableMap(report);
+
+        if (likeCorrections + collectCorrections + commentCorrections + tagDrifts.size() > 0) {
+            log.warn("计数核对完成，已修正偏差 - 点赞: {}, 收藏: {}, 评论: {}, 标签: {}, 耗时: {}ms",
+                    likeCorrections, collectCorrections, commentCorrections, tagDrifts.size(), report.get("durationMs"));
+        } else {
+            log.info("计数核对完成，没有偏差 - 分段数: {}, 耗时: {}ms", chunks, report.get("durationMs"));
+        }
+        return lastReport;
+    }
+
+    /**
+     * 每段执行后休眠，使数据库占用时间不超过max-db-time-ratio
+     */
+    private void throttle(long elapsedNanos) {
+        if (maxDbTimeRatio <= 0 || maxDbTimeRatio >= 1) {
+            return;
+        }
+        long sleepNanos = (long) (elapsedNanos * (1 / maxDbTimeRatio - 1));
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 修正明细：每项为 [记录值, 实际值]，只包含有偏差的计数
+     */
+    private Map<String, Object> describe(ArticleCounterDrift drift) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("articleId", drift.getArticleId());
+        if (!drift.getLikeCount().equals(drift.getActualLikeCount())) {
+            item.put("likeCount", List.of(drift.getLikeCount(), drift.getActualLikeCount()));
+        }
+        if (!drift.getCollectCount().equals(drift.getActualCollectCount())) {
+            item.put("collectCount", List.of(drift.getCollectCount(), drift.getActualCollectCount()));
+        }
+        if (!drift.getCommentCount().equals(drift.getActualCommentCount())) {
+            item.put("commentCount", List.of(drift.getCommentCount(), drift.getActualCommentCount()));
+        }
+        return item;
+    }
+}
@@ -0,0 +1,212 @@
+package com.blog.service;
+
+import com.blog.entity.SiteTotals;
+import com.blog.exception.BusinessException;
+import com.blog.util.TransactionUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 管理后台仪表盘快照服务
+ * 仪表盘数据在后台线程中计算并保存为不可变快照，请求直接返回最近一次快照：
+ * 快照超过max-staleness-ms时触发后台刷新（仍先返回旧快照），数据变化或超过refresh-interval-ms时定时刷新。
+ * 同一时刻最多只有一次刷新在执行，并发触发的刷新共享同一结果。
+ */
+@Slf4j
+@Service
+public class DashboardSnapshotService {
+
+    /**
+     * 趋势图展示的天数
+     */
+    private static final int RECENT_DAYS = 7;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private SiteTotalsService siteTotalsService;
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    /**
+     * 允许返回的快照最大年龄（毫秒），超过后触发后台刷新
+     */
+    @Value("${dashboard.max-staleness-ms:30000}")
+    private long maxStalenessMs;
+
+    /**
+     * 数据没有变化时的定时刷新间隔（毫秒）
+     */
+    @Value("${dashboard.refresh-interval-ms:300000}")
+    private long refreshIntervalMs;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * 正在执行的刷新（single-flight）
+     */
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 自上次快照以来数据是否发生过变化
+     */
+    private volatile boolean changed = true;
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 获取仪表盘数据
+     * 没有快照时同步等待首次计算，快照过旧时触发后台刷新并返回当前快照
+     *
+     * @return 仪表盘数据（含snapshotAt和snapshotAgeMs）
+     */
+    public Map<String, Object> getDashboard() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            current = await(refresh());
+        } else if (current.ageMs() > maxStalenessMs) {
+            refresh();
+        }
+
+        Map<String, Object> dashboard = new LinkedHashMap<>(current.data());
+        dashboard.put("snapshotAt", current.computedAt());
+        dashboard.put("snapshotAgeMs", current.ageMs());
+        return dashboard;
+    }
+
+    /**
+     * 立即刷新快照并等待完成（已有刷新在执行时等待该次刷新）
+     */
+    public void refreshNow() {
+        changed = true;
+        await(refresh());
+    }
+
+    /**
+     * 标记仪表盘数据发生了变化，下一次定时检查时刷新
+     * 存在事务时在提交后才标记：提交前刷新读到的仍是旧数据，且会清除标记
+     */
+    public void markChanged() {
+        TransactionUtil.afterCommit(() -> changed = true);
+    }
+
+    /**
+     * 定时检查：数据有变化或快照超过刷新间隔时在后台刷新
+     */
+    @Scheduled(fixedDelayString = "${dashboard.check-interval-ms:10000}")
+    public void scheduledRefresh() {
+        Snapshot current = snapshot.get();
+        if (current == null || changed || current.ageMs() > refreshIntervalMs) {
+            refresh();
+        }
+    }
+
+    /**
+     * 触发一次后台刷新，已有刷新在执行时直接返回该次刷新
+     *
+     * @return 刷新结果
+     */
+    private CompletableFuture<Snapshot> refresh() {
+        while (true) {
+            CompletableFuture<Snapshot> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<Snapshot> future = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, future)) {
+                refresher.execute(() -> compute(future));
+                return future;
+            }
+        }
+    }
+
+    private void compute(CompletableFuture<Snapshot> future) {
+        try {
+            // 先清除变化标记：计算期间发生的变化会重新置位，下次再刷新
+            changed = false;
+            Snapshot computed = new Snapshot(Collections.unmodifiableMap(computeDashboard()), System.currentTimeMillis());
+            snapshot.set(computed);
+            future.complete(computed);
+        } catch (Exception e) {
+            changed = true;
+            log.warn("仪表盘快照刷新失败: {}", e.toString());
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    /**
+     * 计算仪表盘数据
+     */
+    private Map<String, Object> computeDashboard() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        // 聚合最近7天的统计数据（只重新计算有变化的日期）
+        try {
+            statisticsService.aggregateRecentStatistics(RECENT_DAYS);
+        } catch (Exception e) {
+            // 聚合失败不影响返回已有数据
+        }
+
+        // 全站累计计数（单行读取）
+        SiteTotals totals = siteTotalsService.getTotals();
+        stats.put("totalArticles", totals.getTotalArticles());
+        stats.put("totalUsers", totals.getTotalUsers());
+        stats.put("totalComments", totals.getTotalComments());
+        // 总浏览量（含尚未写回的增量）
+        stats.put("totalViews", totals.getTotalViews() + viewCountService.getPendingTotal());
+
+        // 最近7天的统计数据（用于趋势图）
+        stats.put("recentStatistics", statisticsService.getRecentStatistics(RECENT_DAYS));
+        return stats;
+    }
+
+    private Snapshot await(CompletableFuture<Snapshot> future) {
+        try {
+            return future.get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.error("获取仪表盘快照失败", cause);
+            throw new BusinessException("统计数据暂不可用");
+        }
+    }
+
+    /**
+     * 不可变快照
+     *
+     * @param data       仪表盘数据
+     * @param computedAt 计算完成时间（毫秒时间戳）
+     */
+    private record Snapshot(Map<String, Object> data, long computedAt) {
+
+        long ageMs() {
+            return System.currentTimeMillis() - computedAt;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.blog.service;
 
-import com.blog.dto.ArticleVO;
+import com.blog.dto.ArticleSummaryVO;
+import com.blog.dto.CursorPage;
+import com.blog.dto.InteractionStatusVO;
 import java.util.List;
 
 /**
@@ -59,18 +61,31 @@ public interface LikeCollectService {
     boolean toggleCollect(Long articleId, Long userId);
 
     /**
-     * 获取用户点赞的文章列表
+     * 批量获取用户对文章的点赞、收藏状态
      *
-     * @param userId 用户ID
-     * @return 文章列表
+     * @param articleIds 文章ID列表（最多PageUtil.MAX_PAGE_SIZE个）
+     * @param userId     用户ID
+     * @return 每篇文章的互动状态（按请求顺序，去重）
      */
-    List<ArticleVO> getLikedArticles(Long userId);
+    List<InteractionStatusVO> getInteractionStatus(List<Long> articleIds, Long userId);
 
     /**
-     * 获取用户收藏的文章列表
+     * 游标分页获取用户点赞的文章列表（按点赞时间倒序）
      *
-     * @param userId 用户ID
-     * @return 文章列表
+     * @param userId   用户ID
+     * @param cursor   上一页返回的游标（第一页传null）
+     * @param pageSize 每页数量
+     * @return 文章游标分页列表
      */
-    List<ArticleVO> getCollectedArticles(Long userId);
+    CursorPage<ArticleSummaryVO> getLikedArticleCursorPage(Long userId, String cursor, Integer pageSize);
+
+    /**
+     * 游标分页获取用户收藏的文章列表（按收藏时间倒序）
+     *
+     * @param userId   用户ID
+     * @param cursor   上一页返回的游标（第一页传null）
+     * @param pageSize 每页数量
+     * @return 文章游标分页列表
+     */
+    CursorPage<ArticleSummaryVO> getCollectedArticleCursorPage(Long userId, String cursor, Integer pageSize);
 }
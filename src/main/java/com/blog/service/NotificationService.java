@@ -0,0 +1,56 @@
+package com.blog.service;
+
+import com.blog.dto.CursorPage;
+import com.blog.dto.NotificationVO;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 通知服务接口
+ */
+public interface NotificationService {
+
+    /**
+     * 提交评论中的@提及，由扇出线程异步解析用户名、写入提及索引和被提及用户的通知
+     * 只入队不访问数据库，耗时与提及人数无关
+     *
+     * @param commentId 评论ID
+     * @param articleId 文章ID
+     * @param actorId   评论者ID
+     * @param usernames 被提及的用户名
+     */
+    void submitMentions(Long commentId, Long articleId, Long actorId, Collection<String> usernames);
+
+    /**
+     * 游标分页获取用户的通知（按时间倒序）
+     *
+     * @param userId   用户ID
+     * @param cursor   上一页返回的游标（第一页为空）
+     * @param pageSize 每页数量
+     * @return 通知游标分页列表
+     */
+    CursorPage<NotificationVO> getNotificationCursorPage(Long userId, String cursor, Integer pageSize);
+
+    /**
+     * 获取用户的未读通知数
+     *
+     * @param userId 用户ID
+     * @return 未读通知数
+     */
+    long getUnreadCount(Long userId);
+
+    /**
+     * 将用户的通知全部标记为已读
+     *
+     * @param userId 用户ID
+     */
+    void markAllRead(Long userId);
+
+    /**
+     * 获取通知扇出统计数据（队列长度、丢弃数、写入失败数等）
+     *
+     * @return 统计数据
+     */
+    Map<String, Object> getFanoutStats();
+}
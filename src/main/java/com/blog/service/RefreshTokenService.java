@@ -0,0 +1,178 @@
+package com.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blog.entity.RefreshToken;
+import com.blog.exception.BusinessException;
+import com.blog.mapper.RefreshTokenMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * 刷新令牌服务
+ * 刷新令牌为随机字符串，数据库只保存其SHA-256摘要。
+ * 每次刷新把旧令牌标记为已使用并在同一家族中签发新令牌（轮换）；
+ * 已使用的令牌超过宽限期后再次出现，视为令牌泄露，整个家族被吊销。
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    /**
+     * 刷新令牌随机字节数
+     */
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenMapper refreshTokenMapper;
+
+    /**
+     * 刷新令牌有效期（毫秒），每次轮换重新计算
+     */
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    /**
+     * 已使用令牌的宽限期（秒）：期内再次使用（如多个标签页同时刷新）只拒绝本次请求，不吊销家族
+     */
+    @Value("${jwt.refresh-reuse-grace-seconds:10}")
+    private long reuseGraceSeconds;
+
+    /**
+     * 为一次新登录签发刷新令牌（新的令牌家族）
+     *
+     * @param userId 用户ID
+     * @return 刷新令牌原文
+     */
+    public String issue(Long userId) {
+        return insert(userId, UUID.randomUUID().toString().replace("-", ""));
+    }
+
+    /**
+     * 轮换刷新令牌：作废传入的令牌并签发同一家族的新令牌
+     *
+     * @param rawToken 刷新令牌原文
+     * @return 轮换结果（用户ID和新令牌原文）
+     * @throws BusinessException 令牌无效、过期、已吊销或被重复使用时抛出（401）
+     */
+    @Transactional(rollbackFor = Exception.class, noRollbackFor = BusinessException.class)
+    public Rotation rotate(String rawToken) {
+        if (!StringUtils.hasText(rawToken)) {
+            throw invalid();
+        }
+        LambdaQueryWrapper<RefreshToken> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(RefreshToken::getTokenHash, hash(rawToken));
+        RefreshToken token = refreshTokenMapper.selectOne(wrapper);
+        if (token == null || token.getRevoked() == 1) {
+            throw invalid();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getUsedAt() != null) {
+            if (token.getUsedAt().isAfter(now.minusSeconds(reuseGraceSeconds))) {
+                // 并发刷新：另一个请求刚轮换过，客户端应改用新令牌
+                throw new BusinessException(401, "刷新令牌已更新，请使用最新的令牌");
+            }
+            refreshTokenMapper.revokeFamily(token.getFamilyId());
+            log.warn("检测到刷新令牌重复使用，已吊销令牌家族 - 用户ID: {}, 家族: {}", token.getUserId(), token.getFamilyId());
+            throw invalid();
+        }
+        if (token.getExpiresAt().isBefore(now)) {
+            throw invalid();
+        }
+        if (refreshTokenMapper.markUsed(token.getId(), now) == 0) {
+            throw new BusinessException(401, "刷新令牌已更新，请使用最新的令牌");
+        }
+
+        return new Rotation(token.getUserId(), insert(token.getUserId(), token.getFamilyId()));
+    }
+
+    /**
+     * 吊销刷新令牌所在的整个家族（退出登录）
+     *
+     * @param rawToken 刷新令牌原文
+     */
+    public void revoke(String rawToken) {
+        if (!StringUtils.hasText(rawToken)) {
+            return;
+        }
+        LambdaQueryWrapper<RefreshToken> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(RefreshToken::getFamilyId).eq(RefreshToken::getTokenHash, hash(rawToken));
+        RefreshToken token = refreshTokenMapper.selectOne(wrapper);
+        if (token != null) {
+            refreshTokenMapper.revokeFamily(token.getFamilyId());
+        }
+    }
+
+    /**
+     * 吊销用户的所有刷新令牌（禁言、删除、强制下线）
+     *
+     * @param userId 用户ID
+     */
+    public void revokeAllForUser(Long userId) {
+        refreshTokenMapper.revokeByUser(userId);
+    }
+
+    /**
+     * 删除已过期的刷新令牌
+     *
+     * @return 删除的行数
+     */
+    public int purgeExpired() {
+        LambdaQueryWrapper<RefreshToken> wrapper = new LambdaQueryWrapper<>();
+        wrapper.lt(RefreshToken::getExpiresAt, LocalDateTime.now());
+        return refreshTokenMapper.delete(wrapper);
+    }
+
+    private String insert(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setTokenHash(hash(rawToken));
+        token.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)));
+        token.setRevoked(0);
+        refreshTokenMapper.insert(token);
+        return rawToken;
+    }
+
+    private String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BusinessException invalid() {
+        return new BusinessException(401, "登录已失效，请重新登录");
+    }
+
+    /**
+     * 轮换结果
+     *
+     * @param userId       用户ID
+     * @param refreshToken 新的刷新令牌原文
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+}
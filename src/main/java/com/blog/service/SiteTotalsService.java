@@ -0,0 +1,125 @@
+package com.blog.service;
+
+import com.blog.entity.SiteTotals;
+import com.blog.entity.SiteTotalsDrift;
+import com.blog.mapper.SiteTotalsMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 全站累计计数服务
+ * 文章、用户、评论、浏览量的总数保存在site_totals单行表中，由业务写入时在同一事务内相对更新，
+ * 读取总数只需一次主键查询；定时核对任务在一致性快照上发现偏差，按差值相对修复。
+ */
+@Slf4j
+@Service
+public class SiteTotalsService {
+
+    @Autowired
+    private SiteTotalsMapper siteTotalsMapper;
+
+    /**
+     * 文章数增减
+     *
+     * @param delta 增量（删除为负数）
+     */
+    public void addArticles(long delta) {
+        increment(delta, 0, 0, 0);
+    }
+
+    /**
+     * 用户数增减
+     *
+     * @param delta 增量（删除为负数）
+     */
+    public void addUsers(long delta) {
+        increment(0, delta, 0, 0);
+    }
+
+    /**
+     * 评论数增减
+     *
+     * @param delta 增量（删除为负数）
+     */
+    public void addComments(long delta) {
+        increment(0, 0, delta, 0);
+    }
+
+    /**
+     * 浏览量增减
+     *
+     * @param delta 增量
+     */
+    public void addViews(long delta) {
+        increment(0, 0, 0, delta);
+    }
+
+    /**
+     * 读取全站累计计数
+     *
+     * @return 累计计数，计数行尚未初始化时先写入初始行并从源表核对
+     */
+    public SiteTotals getTotals() {
+        SiteTotals totals = siteTotalsMapper.selectById(1);
+        if (totals == null) {
+            reconcile();
+            totals = siteTotalsMapper.selectById(1);
+        }
+        return totals;
+    }
+
+    /**
+     * 将累计计数与源表核对，有偏差时以源表为准修复
+     * 记录值和源表统计在同一条语句中读取（同一个一致性快照，不加锁），偏差按差值相对更新：
+     * 核对期间并发的业务增量不会被覆盖，业务写入也不会被全表统计阻塞
+     *
+     * @return 核对报告（各项的记录值、实际值和是否修复）
+     */
+    public Map<String, Object> reconcile() {
+        SiteTotalsDrift drift = siteTotalsMapper.selectDrift();
+        if (drift == null) {
+            siteTotalsMapper.insertSeed();
+            drift = siteTotalsMapper.selectDrift();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        long articles = compare(report, "totalArticles", drift.getTotalArticles(), drift.getActualTotalArticles());
+        long users = compare(report, "totalUsers", drift.getTotalUsers(), drift.getActualTotalUsers());
+        long comments = compare(report, "totalComments", drift.getTotalComments(), drift.getActualTotalComments());
+        long views = compare(report, "totalViews", drift.getTotalViews(), drift.getActualTotalViews());
+
+        boolean drifted = articles != 0 || users != 0 || comments != 0 || views != 0;
+        if (drifted) {
+            siteTotalsMapper.increment(articles, users, comments, views);
+            log.warn("全站累计计数存在偏差，已修复: {}", report);
+        }
+        report.put("repaired", drifted);
+        return report;
+    }
+
+    /**
+     * 记录一项的记录值和实际值
+     *
+     * @return 偏差（实际值 - 记录值）
+     */
+    private long compare(Map<String, Object> report, String name, Long recorded, Long actual) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("recorded", recorded);
+        item.put("actual", actual);
+        report.put(name, item);
+        return nullToZero(actual) - nullToZero(recorded);
+    }
+
+    private long nullToZero(Long value) {
+        return value != null ? value : 0L;
+    }
+    private void increment(long articles, long users, long comments, long views) {
+        if (siteTotalsMapper.increment(articles, users, comments, views) == 0) {
+            log.warn("全站累计计数行不存在，等待核对任务初始化");
+        }
+    }
+}
@@ -1,24 +1,30 @@
 package com.blog.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.blog.entity.AccessLog;
 import com.blog.entity.SiteStatistics;
-import com.blog.entity.User;
 import com.blog.mapper.AccessLogMapper;
 import com.blog.mapper.SiteStatisticsMapper;
 import com.blog.mapper.UserMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * 统计服务类
  * 负责网站访问量和用户数据的统计聚合
+ * 聚合时每张源表只做一次按天分组的扫描，所有日期一次批量写入；
+ * 已聚合且源数据没有变化的日期会被跳过（源数据变化时通过markDirty标记）
  */
 @Slf4j
 @Service
@@ -33,110 +39,40 @@ public class StatisticsService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UvSketchService uvSketchService;
+
     /**
-     * 聚合昨天的访问数据到统计表
-     * 每天凌晨执行，统计前一天的数据
+     * 本次启动以来已聚合、且之后源数据没有变化的日期
      */
-    @Transactional
-    public void aggregateDailyStatistics() {
-        // 获取昨天的日期
-        LocalDate yesterday = LocalDate.now().minusDays(1);
-
-        log.info("开始聚合日期 {} 的统计数据", yesterday);
-
-        try {
-            // 计算PV（页面浏览量）
-            int pv = calculatePV(yesterday);
-            log.info("PV: {}", pv);
-
-            // 计算UV（独立访客数）
-            int uv = calculateUV(yesterday);
-            log.info("UV: {}", uv);
-
-            // 计算新注册用户数
-            int newUsers = calculateNewUsers(yesterday);
-            log.info("新注册用户: {}", newUsers);
-
-            // 检查是否已存在该日期的统计记录
-            LambdaQueryWrapper<SiteStatistics> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(SiteStatistics::getStatisticDate, yesterday);
-            SiteStatistics existing = siteStatisticsMapper.selectOne(queryWrapper);
-
-            if (existing != null) {
-                // 更新已存在的记录
-                existing.setPv(pv);
-                existing.setUv(uv);
-                existing.setNewUsers(newUsers);
-                siteStatisticsMapper.updateById(existing);
-                log.info("更新日期 {} 的统计记录成功", yesterday);
-            } else {
-                // 创建新的统计记录
-                SiteStatistics statistics = new SiteStatistics();
-                statistics.setStatisticDate(yesterday);
-                statistics.setPv(pv);
-                statistics.setUv(uv);
-                statistics.setNewUsers(newUsers);
-                siteStatisticsMapper.insert(statistics);
-                log.info("创建日期 {} 的统计记录成功", yesterday);
-            }
-
-        } catch (Exception e) {
-            log.error("聚合日期 {} 的统计数据失败", yesterday, e);
-            throw e;
-        }
-    }
+    private final Set<LocalDate> cleanDates = ConcurrentHashMap.newKeySet();
 
     /**
-     * 计算指定日期的PV（页面浏览量）
+     * 标记某天的源数据（访问日志、注册用户）发生了变化，下次聚合时重新计算
      *
      * @param date 日期
-     * @return PV值
      */
-    private int calculatePV(LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
-
-        LambdaQueryWrapper<AccessLog> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.ge(AccessLog::getCreatedAt, startOfDay)
-                .lt(AccessLog::getCreatedAt, endOfDay);
-
-        return Math.toIntExact(accessLogMapper.selectCount(queryWrapper));
+    public void markDirty(LocalDate date) {
+        cleanDates.remove(date);
     }
 
     /**
-     * 计算指定日期的UV（独立访客数）
-     * 注意：为便于本地测试，暂不对IP地址去重，UV等于PV
+     * 标记多天的源数据发生了变化
      *
-     * @param date 日期
-     * @return UV值
+     * @param dates 日期集合
      */
-    private int calculateUV(LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
-
-        LambdaQueryWrapper<AccessLog> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.ge(AccessLog::getCreatedAt, startOfDay)
-                .lt(AccessLog::getCreatedAt, endOfDay);
-
-        // 直接返回访问记录总数，不进行IP去重（便于本地测试）
-        return Math.toIntExact(accessLogMapper.selectCount(queryWrapper));
+    public void markDirty(Collection<LocalDate> dates) {
+        cleanDates.removeAll(dates);
     }
 
     /**
-     * 计算指定日期的新注册用户数
-     *
-     * @param date 日期
-     * @return 新用户数
+     * 聚合昨天的访问数据到统计表
+     * 每天凌晨执行，统计前一天的数据
      */
-    private int calculateNewUsers(LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
-
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.ge(User::getCreatedAt, startOfDay)
-                .lt(User::getCreatedAt, endOfDay);
-
-        return Math.toIntExact(userMapper.selectCount(queryWrapper));
+    public void aggregateDailyStatistics() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        log.info("开始聚合日期 {} 的统计数据", yesterday);
+        aggregateStatistics(yesterday, yesterday, true);
     }
 
     /**
@@ -159,61 +95,75 @@ public class StatisticsService {
 
     /**
      * 聚合最近N天的统计数据（包含今天）
-     * 用于管理员手动刷新或进入面板时自动更新
+     * 用于进入面板时自动更新，只重新计算有变化的日期
      *
      * @param days 天数
      */
-    @Transactional
     public void aggregateRecentStatistics(int days) {
         LocalDate today = LocalDate.now();
+        aggregateStatistics(today.minusDays(days - 1), today, false);
+    }
 
-        // 从今天开始统计（i=0），向前推 days 天
-        for (int i = 0; i < days; i++) {
-            LocalDate date = today.minusDays(i);
-            try {
-                aggregateStatisticsForDate(date);
-            } catch (Exception e) {
-                log.error("聚合日期 {} 的统计数据失败", date, e);
+    /**
+     * 聚合日期区间内的统计数据
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate   结束日期（包含）
+     * @param force     true=全部重新计算，false=跳过已聚合且没有变化的日期
+     */
+    public void aggregateStatistics(LocalDate startDate, LocalDate endDate, boolean force) {
+        Set<LocalDate> dates = new TreeSet<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (force || !cleanDates.contains(date)) {
+                dates.add(date);
             }
         }
+        if (dates.isEmpty()) {
+            return;
+        }
+
+        // 先标记为已聚合：计算期间到达的新数据会重新标记为变化，下次再算
+        cleanDates.addAll(dates);
+        try {
+            List<SiteStatistics> rows = computeStatistics(dates);
+            siteStatisticsMapper.upsertDailyStatistics(rows);
+            log.info("聚合统计数据成功 - 日期数: {}, 区间: {} ~ {}", rows.size(),
+                    Collections.min(dates), Collections.max(dates));
+        } catch (RuntimeException e) {
+            cleanDates.removeAll(dates);
+            log.error("聚合统计数据失败 - 区间: {} ~ {}", startDate, endDate, e);
+            throw e;
+        }
     }
 
     /**
-     * 聚合指定日期的统计数据
+     * 计算指定日期的PV、UV、新注册用户数
+     * PV和新用户数各用一次按天分组的查询得到，UV由每日HyperLogLog草图估计
      *
-     * @param date 日期
+     * @param dates 日期（有序）
+     * @return 每个日期一条统计记录
      */
-    private void aggregateStatisticsForDate(LocalDate date) {
-        // 计算PV（页面浏览量）
-        int pv = calculatePV(date);
-
-        // 计算UV（独立访客数）
-        int uv = calculateUV(date);
-
-        // 计算新注册用户数
-        int newUsers = calculateNewUsers(date);
-
-        // 检查是否已存在该日期的统计记录
-        LambdaQueryWrapper<SiteStatistics> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(SiteStatistics::getStatisticDate, date);
-        SiteStatistics existing = siteStatisticsMapper.selectOne(queryWrapper);
-
-        if (existing != null) {
-            // 更新已存在的记录
-            existing.setPv(pv);
-            existing.setUv(uv);
-            existing.setNewUsers(newUsers);
-            siteStatisticsMapper.updateById(existing);
-        } else {
-            // 创建新的统计记录
+    private List<SiteStatistics> computeStatistics(Set<LocalDate> dates) {
+        LocalDate first = Collections.min(dates);
+        LocalDate last = Collections.max(dates);
+
+        Map<LocalDate, Integer> pvMap = accessLogMapper
+                .countPvByDate(first.atStartOfDay(), last.plusDays(1).atStartOfDay()).stream()
+                .collect(Collectors.toMap(SiteStatistics::getStatisticDate, SiteStatistics::getPv));
+        Map<LocalDate, Integer> newUserMap = userMapper
+                .countNewUsersByDate(first.atStartOfDay(), last.plusDays(1).atStartOfDay()).stream()
+                .collect(Collectors.toMap(SiteStatistics::getStatisticDate, SiteStatistics::getNewUsers));
+        Map<LocalDate, Long> uvMap = uvSketchService.getDailyUvs(dates, pvMap.keySet());
+
+        List<SiteStatistics> rows = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
             SiteStatistics statistics = new SiteStatistics();
             statistics.setStatisticDate(date);
-            statistics.setPv(pv);
-            statistics.setUv(uv);
-            statistics.setNewUsers(newUsers);
-            siteStatisticsMapper.insert(statistics);
+            statistics.setPv(pvMap.getOrDefault(date, 0));
+            statistics.setUv(Math.toIntExact(uvMap.getOrDefault(date, 0L)));
+            statistics.setNewUsers(newUserMap.getOrDefault(date, 0));
+            rows.add(statistics);
         }
-
-        log.info("聚合日期 {} 的统计数据成功: PV={}, UV={}, NewUsers={}", date, pv, uv, newUsers);
+        return rows;
     }
 }
@@ -0,0 +1,245 @@
+package com.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blog.entity.ArticleTag;
+import com.blog.entity.Tag;
+import com.blog.mapper.ArticleTagMapper;
+import com.blog.mapper.TagMapper;
+import com.blog.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 标签倒排索引服务
+ * 在内存中维护 标签ID → 文章ID压缩位图 的倒排表，用于按标签筛选文章。
+ * 位图发布后不再修改（写时复制），全量重建时在旁路构建新索引后一次性替换引用，读操作无需加锁。
+ * 增量更新失败时标记索引待修复，由定时任务全量重建。
+ * 文章ID为自增主键，与创建时间同序，按ID倒序即为按创建时间倒序。
+ */
+@Slf4j
+@Service
+public class TagIndexService {
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private ArticleTagMapper articleTagMapper;
+
+    /**
+     * 当前发布的索引，未构建时为null
+     */
+    private volatile Index index;
+
+    /**
+     * 索引是否与数据库不一致（增量更新失败），由定时任务全量重建
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    /**
+     * 应用启动后从article_tag表构建索引
+     * 数据库不可用时仅记录日志，首次查询时再重试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("标签索引构建失败，将在首次查询时重试: {}", e.toString());
+        }
+    }
+
+    /**
+     * 从数据库全量重建索引
+     */
+    public synchronized void rebuild() {
+        LambdaQueryWrapper<Tag> tagWrapper = new LambdaQueryWrapper<>();
+        tagWrapper.select(Tag::getId, Tag::getName);
+        List<Tag> tags = tagMapper.selectList(tagWrapper);
+
+        LambdaQueryWrapper<ArticleTag> articleTagWrapper = new LambdaQueryWrapper<>();
+        articleTagWrapper.select(ArticleTag::getArticleId, ArticleTag::getTagId);
+        List<ArticleTag> articleTags = articleTagMapper.selectList(articleTagWrapper);
+
+        Map<Long, RoaringBitmap> newPostings = new HashMap<>();
+        for (ArticleTag articleTag : articleTags) {
+            newPostings.computeIfAbsent(articleTag.getTagId(), k -> new RoaringBitmap())
+                    .add(toIndexId(articleTag.getArticleId()));
+        }
+        newPostings.values().forEach(RoaringBitmap::runOptimize);
+
+        Index newIndex = new Index(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(newPostings));
+        tags.forEach(tag -> newIndex.tagIds().put(tag.getName(), tag.getId()));
+        // 构建完成后一次性发布，读操作要么看到旧索引，要么看到完整的新索引
+        index = newIndex;
+
+        log.info("标签索引构建完成 - 标签数: {}, 关联数: {}", tags.size(), articleTags.size());
+    }
+
+    /**
+     * 索引被标记为不一致时全量重建
+     * 重建失败时保留标记，下个周期重试
+     */
+    @Scheduled(fixedDelayString = "${search.repair-interval-ms:60000}")
+    public void repairIfDirty() {
+        if (!dirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            dirty.set(true);
+            log.warn("标签索引重建失败，将在下个周期重试: {}", e.toString());
+        }
+    }
+
+    /**
+     * 事务提交后将文章加入标签的倒排表
+     *
+     * @param tag       标签
+     * @param articleId 文章ID
+     */
+    public void addArticle(Tag tag, Long articleId) {
+        int indexId = toIndexId(articleId);
+        TransactionUtil.afterCommit(() -> applyUpdate(articleId, current -> {
+            current.tagIds().put(tag.getName(), tag.getId());
+            current.postings().compute(tag.getId(), (k, old) -> {
+                RoaringBitmap bitmap = old == null ? new RoaringBitmap() : old.clone();
+                bitmap.add(indexId);
+                return bitmap;
+            });
+        }));
+    }
+
+    /**
+     * 事务提交后将文章从标签的倒排表中移除
+     *
+     * @param tagIdList 标签ID列表
+     * @param articleId 文章ID
+     */
+    public void removeArticle(Collection<Long> tagIdList, Long articleId) {
+        int indexId = toIndexId(articleId);
+        TransactionUtil.afterCommit(() -> applyUpdate(articleId, current -> {
+            for (Long tagId : tagIdList) {
+                current.postings().computeIfPresent(tagId, (k, old) -> {
+                    RoaringBitmap bitmap = old.clone();
+                    bitmap.remove(indexId);
+                    return bitmap;
+                });
+            }
+        }));
+    }
+
+    /**
+     * 对当前发布的索引执行增量更新（索引尚未构建时跳过，构建时会从数据库读到最新关联）
+     * 失败时标记索引待修复，由定时任务全量重建
+     */
+    private synchronized void applyUpdate(Long articleId, Consumer<Index> update) {
+        Index current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            update.accept(current);
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            log.error("标签索引增量更新失败，已标记索引待重建 - 文章ID: {}", articleId, e);
+        }
+    }
+
+    /**
+     * 查询带有指定标签的文章集合
+     *
+     * @param tagNames 标签名称列表
+     * @param matchAll true=同时带有全部标签（交集），false=带有任一标签（并集）
+     * @return 文章ID位图（调用方可自由修改）
+     */
+    public RoaringBitmap match(List<String> tagNames, boolean matchAll) {
+        Index current = ensureReady();
+
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String tagName : tagNames) {
+            Long tagId = current.tagIds().get(tagName);
+            RoaringBitmap bitmap = tagId != null ? current.postings().get(tagId) : null;
+            if (bitmap == null) {
+                if (matchAll) {
+                    return new RoaringBitmap();
+                }
+                continue;
+            }
+            bitmaps.add(bitmap);
+        }
+
+        if (bitmaps.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        if (bitmaps.size() == 1) {
+            return bitmaps.get(0).clone();
+        }
+        return matchAll ? FastAggregation.and(bitmaps.iterator()) : FastAggregation.or(bitmaps.iterator());
+    }
+
+    /**
+     * 按ID倒序（即创建时间倒序）取出一页文章ID
+     *
+     * @param bitmap   文章ID位图
+     * @param page     页码
+     * @param pageSize 每页数量
+     * @return 文章ID列表
+     */
+    public List<Long> pageDescending(RoaringBitmap bitmap, int page, int pageSize) {
+        List<Long> ids = new ArrayList<>(pageSize);
+        long cardinality = bitmap.getLongCardinality();
+        long start = (long) (page - 1) * pageSize;
+        for (long i = start; i < cardinality && ids.size() < pageSize; i++) {
+            // 第i大的元素即第(cardinality - 1 - i)小的元素
+            ids.add(Integer.toUnsignedLong(bitmap.select((int) (cardinality - 1 - i))));
+        }
+        return ids;
+    }
+
+    /**
+     * 确保索引已构建
+     *
+     * @return 当前发布的索引
+     */
+    private Index ensureReady() {
+        Index current = index;
+        if (current == null) {
+            rebuild();
+            current = index;
+        }
+        return current;
+    }
+
+    /**
+     * 文章ID转换为位图下标（位图为32位，文章ID不得超过其范围）
+     */
+    private int toIndexId(Long articleId) {
+        return Math.toIntExact(articleId);
+    }
+
+    /**
+     * 一次发布的索引
+     *
+     * @param tagIds   标签名称 → 标签ID
+     * @param postings 标签ID → 文章ID位图
+     */
+    private record Index(Map<String, Long> tagIds, Map<Long, RoaringBitmap> postings) {
+    }
+}
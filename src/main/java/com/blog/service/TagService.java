@@ -2,7 +2,9 @@ package com.blog.service;
 
 import com.blog.entity.Tag;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 标签服务接口
@@ -33,6 +35,14 @@ public interface TagService {
      */
     List<String> getArticleTags(Long articleId);
 
+    /**
+     * 批量获取多篇文章的标签列表
+     *
+     * @param articleIds 文章ID集合
+     * @return 文章ID到标签名称列表的映射（无标签的文章不包含在内）
+     */
+    Map<Long, List<String>> getArticleTagsMap(Collection<Long> articleIds);
+
     /**
      * 删除文章的所有标签关联
      *
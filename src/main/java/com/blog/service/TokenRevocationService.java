@@ -0,0 +1,202 @@
+package com.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blog.entity.TokenRevocation;
+import com.blog.mapper.TokenRevocationMapper;
+import com.blog.security.JwtPrincipal;
+import com.blog.util.LongLongHashMap;
+import com.blog.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token吊销服务
+ * 每个用户一个吊销截止时间：签发时间早于截止时间的Token全部失效（禁言、删除用户时写入）。
+ * 截止时间保存在token_revocation表中，内存里是 用户ID → 截止时间 的基本类型哈希表（写时复制），
+ * 认证过滤器每个请求只做一次无锁数组查找，不访问数据库。
+ * 启动时全量加载，之后定时增量加载其他实例写入的吊销；所有Token都已过期的截止时间被清理。
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    /**
+     * 增量加载时向前重叠的时间（秒），覆盖提交顺序与updated_at顺序不一致的写入
+     */
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
+    @Autowired
+    private TokenRevocationMapper tokenRevocationMapper;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    /**
+     * Token有效期（毫秒），截止时间早于 当前时间 − 有效期 后不再需要保留
+     */
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMs;
+
+    /**
+     * 用户ID → 截止时间（毫秒时间戳，向上取整到秒：JWT的签发时间精确到秒）
+     */
+    private volatile LongLongHashMap cutoffs = LongLongHashMap.EMPTY;
+
+    private volatile boolean loaded = false;
+
+    /**
+     * 上一次加载开始的时间
+     */
+    private volatile LocalDateTime lastRefreshAt;
+
+    /**
+     * 应用启动后全量加载吊销表
+     * 数据库不可用时仅记录日志，定时刷新时重试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Token吊销表加载失败，将在定时刷新时重试: {}", e.toString());
+        }
+    }
+
+    /**
+     * 判断Token是否已被吊销（无锁数组查找）
+     *
+     * @param principal 已验证的Token身份
+     * @return true=已吊销
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        return principal.issuedAt() < cutoffs.get(principal.userId(), Long.MIN_VALUE);
+    }
+
+    /**
+     * 吊销用户当前已签发的所有Token（访问令牌和刷新令牌）
+     * 数据库在当前事务中写入，内存表在事务提交后更新
+     *
+     * @param userId 用户ID
+     */
+    public void revokeAll(Long userId) {
+        // 向上取整到秒：与吊销同一秒内签发的Token（签发时间被截断到整秒）也一并失效
+        long cutoffMs = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        tokenRevocationMapper.upsert(userId, toDateTime(cutoffMs));
+        refreshTokenService.revokeAllForUser(userId);
+        TransactionUtil.afterCommit(() -> apply(Collections.singletonMap(userId, cutoffMs)));
+        log.info("已吊销用户的Token - 用户ID: {}, 截止时间: {}", userId, toDateTime(cutoffMs));
+    }
+
+    /**
+     * 定时增量加载吊销表（包括其他实例写入的吊销），未完成首次加载时全量加载
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            if (!loaded) {
+                reload();
+                return;
+            }
+            LocalDateTime startedAt = LocalDateTime.now();
+            LambdaQueryWrapper<TokenRevocation> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(TokenRevocation::getUserId, TokenRevocation::getRevokedBefore)
+                    .ge(TokenRevocation::getUpdatedAt, lastRefreshAt.minusSeconds(REFRESH_OVERLAP_SECONDS));
+            List<TokenRevocation> rows = tokenRevocationMapper.selectList(wrapper);
+            if (!rows.isEmpty()) {
+                apply(toCutoffs(rows));
+            }
+            lastRefreshAt = startedAt;
+        } catch (Exception e) {
+            log.warn("Token吊销表刷新失败: {}", e.toString());
+        }
+    }
+
+    /**
+     * 清理所有Token都已过期的截止时间（数据库和内存表）
+     *
+     * @return 清理的行数
+     */
+    public int purgeExpired() {
+        long threshold = System.currentTimeMillis() - tokenLifetimeMs;
+        LambdaQueryWrapper<TokenRevocation> wrapper = new LambdaQueryWrapper<>();
+        wrapper.lt(TokenRevocation::getRevokedBefore, toDateTime(threshold));
+        int deleted = tokenRevocationMapper.delete(wrapper);
+        synchronized (this) {
+            cutoffs = cutoffs.retainValues(cutoff -> cutoff >= threshold);
+        }
+        return deleted;
+    }
+
+    /**
+     * 获取吊销表统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        LongLongHashMap current = cutoffs;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("revokedUsers", current.size());
+        stats.put("tableBytes", current.sizeInBytes());
+        stats.put("lastRefreshAt", lastRefreshAt);
+        return stats;
+    }
+
+    /**
+     * 从数据库全量重建内存表
+     */
+    private void reload() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LambdaQueryWrapper<TokenRevocation> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(TokenRevocation::getUserId, TokenRevocation::getRevokedBefore);
+        Map<Long, Long> loadedCutoffs = toCutoffs(tokenRevocationMapper.selectList(wrapper));
+        synchronized (this) {
+            cutoffs = LongLongHashMap.EMPTY.withAll(loadedCutoffs);
+        }
+        lastRefreshAt = startedAt;
+        loaded = true;
+        log.info("Token吊销表加载完成 - 用户数: {}", loadedCutoffs.size());
+    }
+
+    /**
+     * 合并截止时间（只前进不后退），发布新的内存表
+     */
+    private synchronized void apply(Map<Long, Long> updates) {
+        LongLongHashMap current = cutoffs;
+        Map<Long, Long> changed = new HashMap<>();
+        updates.forEach((userId, cutoff) -> {
+            if (cutoff > current.get(userId, Long.MIN_VALUE)) {
+                changed.put(userId, cutoff);
+            }
+        });
+        if (!changed.isEmpty()) {
+            cutoffs = current.withAll(changed);
+        }
+    }
+
+    private Map<Long, Long> toCutoffs(List<TokenRevocation> rows) {
+        Map<Long, Long> result = new HashMap<>();
+        for (TokenRevocation row : rows) {
+            result.put(row.getUserId(), row.getRevokedBefore().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return result;
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
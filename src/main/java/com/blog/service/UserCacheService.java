@@ -0,0 +1,102 @@
+package com.blog.service;
+
+import com.blog.dto.UserDTO;
+import com.blog.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 用户摘要缓存服务
+ * 缓存文章、评论作者等展示用的用户摘要（UserDTO），按条数限制总容量；
+ * 禁言、删除等变更时失效，写入后过期作为兜底
+ */
+@Slf4j
+@Service
+public class UserCacheService {
+
+    @Value("${cache.user.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${cache.user.expire-after-write-minutes:10}")
+    private long expireAfterWriteMinutes;
+
+    private Cache<Long, UserDTO> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build();
+        log.info("用户摘要缓存初始化完成 - 最大条数: {}", maximumSize);
+    }
+
+    /**
+     * 获取用户摘要，未命中时通过loader加载
+     * 返回的对象为共享快照，调用方不得修改
+     *
+     * @param userId 用户ID
+     * @param loader 加载函数（返回null表示用户不存在，不会被缓存）
+     * @return 用户摘要，不存在时返回null
+     */
+    public UserDTO get(Long userId, Function<Long, UserDTO> loader) {
+        return cache.get(userId, loader);
+    }
+
+    /**
+     * 批量获取用户摘要，未命中的用户通过loader一次批量加载
+     * 返回的对象为共享快照，调用方不得修改
+     *
+     * @param userIds 用户ID集合
+     * @param loader  批量加载函数（不存在的用户不包含在返回结果中，也不会被缓存）
+     * @return 用户ID到用户摘要的映射
+     */
+    public Map<Long, UserDTO> getAll(Collection<Long> userIds,
+                                     Function<Set<? extends Long>, Map<Long, UserDTO>> loader) {
+        return cache.getAll(userIds, loader);
+    }
+
+    /**
+     * 使用户缓存失效
+     * 立即失效一次；存在事务时在提交后再失效一次，避免事务窗口内被旧数据重新填充
+     *
+     * @param userId 用户ID
+     */
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        TransactionUtil.afterCommit(() -> cache.invalidate(userId));
+    }
+
+    /**
+     * 获取缓存统计信息（命中率、淘汰数、加载耗时等）
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("estimatedSize", cache.estimatedSize());
+        result.put("maximumSize", maximumSize);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadSuccessCount", stats.loadSuccessCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
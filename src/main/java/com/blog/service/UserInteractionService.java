@@ -0,0 +1,186 @@
+package com.blog.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blog.entity.UserCollect;
+import com.blog.entity.UserLike;
+import com.blog.mapper.UserCollectMapper;
+import com.blog.mapper.UserLikeMapper;
+import com.blog.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户互动位图服务
+ * 按用户缓存其点赞、收藏过的文章ID压缩位图，判断文章列表的点赞/收藏状态只需位图查找。
+ * 位图在首次访问时从数据库加载，按位图字节数限制总容量；
+ * 点赞收藏变化时在事务提交后失效该用户的缓存位图，已发布的位图不再修改，读操作无需加锁。
+ */
+@Slf4j
+@Service
+public class UserInteractionService {
+
+    /**
+     * 每个缓存项除位图外的估算开销（字节）
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    @Autowired
+    private UserLikeMapper userLikeMapper;
+
+    @Autowired
+    private UserCollectMapper userCollectMapper;
+
+    @Value("${cache.interaction.max-weight-bytes:16777216}")
+    private long maxWeightBytes;
+
+    @Value("${cache.interaction.expire-after-access-minutes:30}")
+    private long expireAfterAccessMinutes;
+
+    private Cache<Long, Interactions> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long userId, Interactions interactions) -> interactions.sizeInBytes())
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+        log.info("用户互动位图缓存初始化完成 - 最大容量: {} 字节", maxWeightBytes);
+    }
+
+    /**
+     * 筛选用户点赞过的文章
+     *
+     * @param userId     用户ID
+     * @param articleIds 文章ID集合
+     * @return 其中用户点赞过的文章ID
+     */
+    public Set<Long> filterLiked(Long userId, Collection<Long> articleIds) {
+        return filter(get(userId).liked(), articleIds);
+    }
+
+    /**
+     * 筛选用户收藏过的文章
+     *
+     * @param userId     用户ID
+     * @param articleIds 文章ID集合
+     * @return 其中用户收藏过的文章ID
+     */
+    public Set<Long> filterCollected(Long userId, Collection<Long> articleIds) {
+        return filter(get(userId).collected(), articleIds);
+    }
+
+    /**
+     * 记录点赞、收藏状态变化（事务提交后失效该用户的缓存位图，下次访问时从数据库重新加载）
+     * 失效而非按位更新：提交后回调的执行顺序与事务提交顺序无关，按位写入可能以旧状态覆盖新状态
+     *
+     * @param userId 用户ID
+     */
+    public void onInteractionChanged(Long userId) {
+        TransactionUtil.afterCommit(() -> cache.invalidate(userId));
+    }
+
+    /**
+     * 获取缓存统计信息（用户数、位图内存占用、命中率等）
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        long users = 0;
+        long totalBytes = 0;
+        long maxBytes = 0;
+        for (Interactions interactions : cache.asMap().values()) {
+            int bytes = interactions.sizeInBytes();
+            users++;
+            totalBytes += bytes;
+            maxBytes = Math.max(maxBytes, bytes);
+        }
+
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cachedUsers", users);
+        result.put("totalBytes", totalBytes);
+        result.put("averageBytesPerUser", users == 0 ? 0 : totalBytes / users);
+        result.put("maxBytesPerUser", maxBytes);
+        result.put("maxWeightBytes", maxWeightBytes);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private Interactions get(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * 从数据库加载用户的点赞、收藏位图（每张表一次查询）
+     */
+    private Interactions load(Long userId) {
+        LambdaQueryWrapper<UserLike> likeWrapper = new LambdaQueryWrapper<>();
+        likeWrapper.select(UserLike::getArticleId).eq(UserLike::getUserId, userId);
+        RoaringBitmap liked = new RoaringBitmap();
+        userLikeMapper.selectList(likeWrapper).forEach(like -> liked.add(toIndexId(like.getArticleId())));
+
+        LambdaQueryWrapper<UserCollect> collectWrapper = new LambdaQueryWrapper<>();
+        collectWrapper.select(UserCollect::getArticleId).eq(UserCollect::getUserId, userId);
+        RoaringBitmap collected = new RoaringBitmap();
+        userCollectMapper.selectList(collectWrapper).forEach(collect -> collected.add(toIndexId(collect.getArticleId())));
+
+        liked.runOptimize();
+        collected.runOptimize();
+        return new Interactions(liked, collected);
+    }
+
+    private Set<Long> filter(RoaringBitmap bitmap, Collection<Long> articleIds) {
+        if (bitmap.isEmpty() || articleIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> result = new HashSet<>();
+        for (Long articleId : articleIds) {
+            // 超出位图范围的ID不可能存在于数据库中，视为未点赞/收藏
+            if (articleId == null || articleId < 0 || articleId > Integer.MAX_VALUE) {
+                continue;
+            }
+            if (bitmap.contains(toIndexId(articleId))) {
+                result.add(articleId);
+            }
+        }
+        return result;
+    }
+
+    private int toIndexId(Long articleId) {
+        return Math.toIntExact(articleId);
+    }
+
+    /**
+     * 单个用户的互动位图
+     *
+     * @param liked     点赞过的文章ID
+     * @param collected 收藏过的文章ID
+     */
+    private record Interactions(RoaringBitmap liked, RoaringBitmap collected) {
+
+        int sizeInBytes() {
+            return ENTRY_OVERHEAD_BYTES + liked.getSizeInBytes() + collected.getSizeInBytes();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.blog.service;
 
+import com.blog.dto.AuthTokenVO;
 import com.blog.dto.UserDTO;
 import com.blog.dto.UserLoginDTO;
 import com.blog.dto.UserRegisterDTO;
 import com.blog.entity.User;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 用户服务接口
  */
@@ -22,18 +26,41 @@ public interface UserService {
      * 用户登录
      *
      * @param loginDTO 登录信息
-     * @return JWT Token
+     * @return 访问令牌、刷新令牌和用户信息
+     */
+    AuthTokenVO login(UserLoginDTO loginDTO);
+
+    /**
+     * 使用刷新令牌换取新的访问令牌（刷新令牌同时轮换）
+     *
+     * @param refreshToken 刷新令牌
+     * @return 新的访问令牌、刷新令牌和用户信息
+     */
+    AuthTokenVO refresh(String refreshToken);
+
+    /**
+     * 退出登录（吊销刷新令牌）
+     *
+     * @param refreshToken 刷新令牌
      */
-    String login(UserLoginDTO loginDTO);
+    void logout(String refreshToken);
 
     /**
-     * 根据ID获取用户信息
+     * 根据ID获取用户信息（优先读取用户摘要缓存）
      *
      * @param userId 用户ID
-     * @return 用户信息
+     * @return 用户信息（共享快照，调用方不得修改）
      */
     UserDTO getUserById(Long userId);
 
+    /**
+     * 根据ID批量获取用户信息（命中缓存的直接返回，未命中的一次批量查询）
+     *
+     * @param userIds 用户ID集合
+     * @return 用户ID到用户信息的映射（不存在或已删除的用户不包含在内，用户信息为共享快照）
+     */
+    Map<Long, UserDTO> getUsersByIds(Collection<Long> userIds);
+
     /**
      * 根据用户名获取用户
      *
@@ -0,0 +1,424 @@
+package com.blog.service;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blog.entity.AccessLog;
+import com.blog.entity.ArticleUvSketch;
+import com.blog.entity.SiteStatistics;
+import com.blog.mapper.AccessLogMapper;
+import com.blog.mapper.ArticleUvSketchMapper;
+import com.blog.mapper.SiteStatisticsMapper;
+import com.blog.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * UV草图服务
+ * 访问事件到达时按天更新全站和单篇文章的HyperLogLog草图（访客标识：登录用户为用户ID，未登录为IP+UA），
+ * 定时把有变化的草图压缩后写入site_statistics.uv_sketch和article_uv_sketch表。
+ * 多天的UV通过合并每日草图计算，无需重新扫描访问日志。
+ */
+@Slf4j
+@Service
+public class UvSketchService {
+
+    /**
+     * 写回时每条INSERT语句最多包含的草图数
+     */
+    private static final int FLUSH_BATCH_SIZE = 200;
+
+    /**
+     * 从访问日志重建草图时每批读取的行数
+     */
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private SiteStatisticsMapper siteStatisticsMapper;
+
+    @Autowired
+    private ArticleUvSketchMapper articleUvSketchMapper;
+
+    @Autowired
+    private AccessLogMapper accessLogMapper;
+
+    /**
+     * 单篇文章草图的精度（默认4096个寄存器，标准误差约1.6%）
+     */
+    @Value("${statistics.uv.article-precision:12}")
+    private int articlePrecision;
+
+    /**
+     * 日期 → 全站当天草图
+     */
+    private final Map<LocalDate, DaySketch> siteSketches = new ConcurrentHashMap<>();
+
+    /**
+     * (文章ID, 日期) → 文章当天草图
+     */
+    private final Map<ArticleDay, DaySketch> articleSketches = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一批访问事件
+     *
+     * @param logs 访问日志（createdAt为访问时间）
+     */
+    public void record(Collection<AccessLog> logs) {
+        for (AccessLog accessLog : logs) {
+            long hash = MurmurHash.hash64(visitorKey(accessLog));
+            LocalDate date = accessLog.getCreatedAt().toLocalDate();
+            siteSketches.computeIfAbsent(date, k -> new DaySketch(new HyperLogLog()))
+                    .add(hash);
+            articleSketches.computeIfAbsent(new ArticleDay(accessLog.getArticleId(), date),
+                            k -> new DaySketch(new HyperLogLog(articlePrecision)))
+                    .add(hash);
+        }
+    }
+
+    /**
+     * 批量计算多个日期各自的全站UV（一次查询加载区间内已保存的草图）
+     * 有访问但既没有内存草图也没有已保存草图的日期（如功能上线前的历史数据），从访问日志重建一次
+     *
+     * @param dates       日期列表
+     * @param activeDates 有访问记录的日期（其余日期UV为0，无需重建）
+     * @return 日期 → UV
+     */
+    public Map<LocalDate, Long> getDailyUvs(Collection<LocalDate> dates, Set<LocalDate> activeDates) {
+        Map<LocalDate, Long> result = new HashMap<>();
+        if (dates.isEmpty()) {
+            return result;
+        }
+        LocalDate startDate = Collections.min(dates);
+        LocalDate endDate = Collections.max(dates);
+        Map<LocalDate, HyperLogLog> persisted = loadSiteSketches(startDate, endDate);
+
+        for (LocalDate date : dates) {
+            DaySketch inMemory = siteSketches.get(date);
+            HyperLogLog stored = persisted.get(date);
+            if (inMemory == null && stored == null) {
+                result.put(date, activeDates.contains(date) ? rebuildSiteSketch(date).cardinality() : 0L);
+                continue;
+            }
+            HyperLogLog union = new HyperLogLog();
+            if (stored != null) {
+                union.merge(stored);
+            }
+            if (inMemory != null) {
+                inMemory.mergeInto(union);
+            }
+            result.put(date, union.cardinality());
+        }
+        return result;
+    }
+
+    /**
+     * 计算日期区间内的全站UV（合并每日草图）
+     *
+     * @param startDate 开始日期（包含）
+     * @param endDate   结束日期（包含）
+     * @return UV
+     */
+    public long getSiteUv(LocalDate startDate, LocalDate endDate) {
+        HyperLogLog union = new HyperLogLog();
+        loadSiteSketches(startDate, endDate).values().forEach(union::merge);
+        siteSketches.forEach((date, sketch) -> {
+            if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                sketch.mergeInto(union);
+            }
+        });
+        return union.cardinality();
+    }
+
+    /**
+     * 计算日期区间内单篇文章的UV（合并每日草图）
+     *
+     * @param articleId 文章ID
+     * @param startDate 开始日期（包含）
+     * @param endDate   结束日期（包含）
+     * @return UV
+     */
+    public long getArticleUv(Long articleId, LocalDate startDate, LocalDate endDate) {
+        HyperLogLog union = new HyperLogLog(articlePrecision);
+        LambdaQueryWrapper<ArticleUvSketch> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(ArticleUvSketch::getSketch)
+                .eq(ArticleUvSketch::getArticleId, articleId)
+                .ge(ArticleUvSketch::getStatisticDate, startDate)
+                .le(ArticleUvSketch::getStatisticDate, endDate);
+        articleUvSketchMapper.selectList(wrapper)
+                .forEach(row -> union.merge(HyperLogLog.fromBytes(row.getSketch())));
+        articleSketches.forEach((key, sketch) -> {
+            if (key.articleId().equals(articleId)
+                    && !key.date().isBefore(startDate) && !key.date().isAfter(endDate)) {
+                sketch.mergeInto(union);
+            }
+        });
+        return union.cardinality();
+    }
+
+    /**
+     * 定时写回有变化的草图
+     */
+    @Scheduled(fixedDelayString = "${statistics.uv.flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("UV草图写回失败: {}", e.toString());
+        }
+    }
+
+    /**
+     * 应用关闭前写回草图
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("UV草图写回失败: {}", e.toString());
+        }
+    }
+
+    /**
+     * 写回有变化的草图，并清理已写回的过期草图（只在内存中保留今天和昨天的草图）
+     * 内存草图首次写回前先合并数据库中已有的草图，避免重启后覆盖当天已保存的数据
+     */
+    public synchronized void flush() {
+        flushSiteSketches();
+        flushArticleSketches();
+
+        LocalDate oldest = LocalDate.now().minusDays(1);
+        siteSketches.entrySet().removeIf(entry -> entry.getKey().isBefore(oldest) && !entry.getValue().isDirty());
+        articleSketches.entrySet().removeIf(entry -> entry.getKey().date().isBefore(oldest) && !entry.getValue().isDirty());
+    }
+
+    private void flushSiteSketches() {
+        List<LocalDate> dates = siteSketches.entrySet().stream()
+                .filter(entry -> entry.getValue().isDirty())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (dates.isEmpty()) {
+            return;
+        }
+
+        List<SiteStatistics> rows = new ArrayList<>(dates.size());
+        List<DaySketch> flushed = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            DaySketch sketch = siteSketches.get(date);
+            if (!sketch.isMerged()) {
+                sketch.mergePersisted(loadSiteSketches(date, date).get(date));
+            }
+            SiteStatistics row = new SiteStatistics();
+            row.setStatisticDate(date);
+            row.setUvSketch(sketch.snapshot(row::setUv));
+            rows.add(row);
+            flushed.add(sketch);
+        }
+
+        try {
+            for (int i = 0; i < rows.size(); i += FLUSH_BATCH_SIZE) {
+                siteStatisticsMapper.upsertUvSketches(rows.subList(i, Math.min(i + FLUSH_BATCH_SIZE, rows.size())));
+            }
+        } catch (RuntimeException e) {
+            flushed.forEach(DaySketch::markDirty);
+            throw e;
+        }
+    }
+
+    private void flushArticleSketches() {
+        Map<LocalDate, List<ArticleDay>> dirtyByDate = articleSketches.entrySet().stream()
+                .filter(entry -> entry.getValue().isDirty())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.groupingBy(ArticleDay::date));
+
+        for (Map.Entry<LocalDate, List<ArticleDay>> entry : dirtyByDate.entrySet()) {
+            LocalDate date = entry.getKey();
+            List<ArticleDay> keys = entry.getValue();
+            for (int i = 0; i < keys.size(); i += FLUSH_BATCH_SIZE) {
+                flushArticleBatch(date, keys.subList(i, Math.min(i + FLUSH_BATCH_SIZE, keys.size())));
+            }
+        }
+    }
+
+    private void flushArticleBatch(LocalDate date, List<ArticleDay> keys) {
+        // 批量加载尚未合并过的已保存草图
+        List<Long> unmergedIds = keys.stream()
+                .filter(key -> !articleSketches.get(key).isMerged())
+                .map(ArticleDay::articleId)
+                .collect(Collectors.toList());
+        Map<Long, HyperLogLog> persisted = new HashMap<>();
+        if (!unmergedIds.isEmpty()) {
+            LambdaQueryWrapper<ArticleUvSketch> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(ArticleUvSketch::getArticleId, ArticleUvSketch::getSketch)
+                    .eq(ArticleUvSketch::getStatisticDate, date)
+                    .in(ArticleUvSketch::getArticleId, unmergedIds);
+            articleUvSketchMapper.selectList(wrapper)
+                    .forEach(row -> persisted.put(row.getArticleId(), HyperLogLog.fromBytes(row.getSketch())));
+        }
+
+        List<ArticleUvSketch> rows = new ArrayList<>(keys.size());
+        List<DaySketch> flushed = new ArrayList<>(keys.size());
+        for (ArticleDay key : keys) {
+            DaySketch sketch = articleSketches.get(key);
+            if (!sketch.isMerged()) {
+                sketch.mergePersisted(persisted.get(key.articleId()));
+            }
+            ArticleUvSketch row = new ArticleUvSketch();
+            row.setArticleId(key.articleId());
+            row.setStatisticDate(date);
+            row.setSketch(sketch.snapshot(row::setUv));
+            rows.add(row);
+            flushed.add(sketch);
+        }
+
+        try {
+            articleUvSketchMapper.upsertBatch(rows);
+        } catch (RuntimeException e) {
+            flushed.forEach(DaySketch::markDirty);
+            throw e;
+        }
+    }
+
+    /**
+     * 从访问日志重建某天的全站草图并保存
+     *
+     * @param date 日期
+     * @return 重建的草图
+     */
+    private HyperLogLog rebuildSiteSketch(LocalDate date) {
+        HyperLogLog sketch = new HyperLogLog();
+        long lastId = 0;
+        while (true) {
+            LambdaQueryWrapper<AccessLog> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(AccessLog::getId, AccessLog::getUserId, AccessLog::getIpAddress, AccessLog::getUserAgent)
+                    .ge(AccessLog::getCreatedAt, date.atStartOfDay())
+                    .lt(AccessLog::getCreatedAt, date.plusDays(1).atStartOfDay())
+                    .gt(AccessLog::getId, lastId)
+                    .orderByAsc(AccessLog::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<AccessLog> logs = accessLogMapper.selectList(wrapper);
+            if (logs.isEmpty()) {
+                break;
+            }
+            logs.forEach(accessLog -> sketch.add(visitorKey(accessLog)));
+            lastId = logs.get(logs.size() - 1).getId();
+        }
+
+        SiteStatistics row = new SiteStatistics();
+        row.setStatisticDate(date);
+        row.setUv(Math.toIntExact(sketch.cardinality()));
+        row.setUvSketch(sketch.toBytes());
+        siteStatisticsMapper.upsertUvSketches(List.of(row));
+        log.info("从访问日志重建UV草图 - 日期: {}, UV: {}", date, row.getUv());
+        return sketch;
+    }
+
+    /**
+     * 加载日期区间内已保存的全站草图
+     */
+    private Map<LocalDate, HyperLogLog> loadSiteSketches(LocalDate startDate, LocalDate endDate) {
+        LambdaQueryWrapper<SiteStatistics> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(SiteStatistics::getStatisticDate, SiteStatistics::getUvSketch)
+                .ge(SiteStatistics::getStatisticDate, startDate)
+                .le(SiteStatistics::getStatisticDate, endDate)
+                .isNotNull(SiteStatistics::getUvSketch);
+        Map<LocalDate, HyperLogLog> sketches = new HashMap<>();
+        for (SiteStatistics row : siteStatisticsMapper.selectList(wrapper)) {
+            sketches.put(row.getStatisticDate(), HyperLogLog.fromBytes(row.getUvSketch()));
+        }
+        return sketches;
+    }
+
+    /**
+     * 访客标识：登录用户按用户ID，未登录按IP+UA
+     */
+    private String visitorKey(AccessLog accessLog) {
+        if (accessLog.getUserId() != null) {
+            return "u:" + accessLog.getUserId();
+        }
+        return "a:" + accessLog.getIpAddress() + "|" + accessLog.getUserAgent();
+    }
+
+    /**
+     * 文章草图的键
+     */
+    private record ArticleDay(Long articleId, LocalDate date) {
+    }
+
+    /**
+     * 内存中的单日草图
+     * 写入来自访问日志写入线程，读取和写回来自其他线程，均在草图对象上同步
+     */
+    private static final class DaySketch {
+
+        private final HyperLogLog sketch;
+
+        /**
+         * 是否已合并数据库中保存的草图
+         */
+        private boolean merged;
+
+        /**
+         * 上次写回后是否有新的访问
+         */
+        private volatile boolean dirty;
+
+        DaySketch(HyperLogLog sketch) {
+            this.sketch = sketch;
+        }
+
+        synchronized void add(long hash) {
+            sketch.addHash(hash);
+            dirty = true;
+        }
+
+        synchronized void mergeInto(HyperLogLog target) {
+            target.merge(sketch);
+        }
+
+        synchronized void mergePersisted(HyperLogLog persisted) {
+            if (persisted != null) {
+                sketch.merge(persisted);
+            }
+            merged = true;
+        }
+
+        synchronized boolean isMerged() {
+            return merged;
+        }
+
+        /**
+         * 清除dirty标记并返回压缩后的草图
+         *
+         * @param estimateConsumer 接收当前基数估计值
+         */
+        synchronized byte[] snapshot(IntConsumer estimateConsumer) {
+            dirty = false;
+            estimateConsumer.accept(Math.toIntExact(sketch.cardinality()));
+            return sketch.toBytes();
+        }
+
+        void markDirty() {
+            dirty = true;
+        }
+
+        boolean isDirty() {
+            return dirty;
+        }
+    }
+}
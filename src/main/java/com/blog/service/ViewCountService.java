@@ -0,0 +1,186 @@
+package com.blog.service;
+
+import com.blog.mapper.ArticleMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文章浏览量累加服务
+ * 浏览时只在内存中按文章累加（LongAdder分段计数，热门文章不会在同一个计数器上竞争），
+ * 定时将增量合并为一条UPDATE写回数据库，避免每次浏览都锁住文章行。
+ * 读取浏览量时叠加尚未写回的增量。文章删除后，其尚未写回的增量直接丢弃。
+ */
+@Slf4j
+@Service
+public class ViewCountService {
+
+    /**
+     * 每条UPDATE语句最多包含的文章数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private SiteTotalsService siteTotalsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${view-count.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * 文章ID → 未写回的浏览量增量
+     * 计数器写回后归零，一个写回周期内没有新浏览时移除；条目数不超过最近被浏览过的文章数
+     */
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 上一次写回时移除的计数器
+     * 移除前已取得计数器引用的并发累加仍会加到旧计数器上，下一次写回时再收集一次，之后丢弃
+     * 只在flush中访问
+     */
+    private final Map<Long, LongAdder> retired = new HashMap<>();
+
+    /**
+     * 累计写回的浏览量
+     */
+    private final LongAdder flushedTotal = new LongAdder();
+
+    /**
+     * 增加一次浏览
+     *
+     * @param articleId 文章ID
+     */
+    public void increment(Long articleId) {
+        pending.computeIfAbsent(articleId, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 获取文章尚未写回的浏览量增量
+     *
+     * @param articleId 文章ID
+     * @return 增量
+     */
+    public long getPending(Long articleId) {
+        LongAdder adder = pending.get(articleId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * 批量获取文章尚未写回的浏览量增量
+     *
+     * @param articleIds 文章ID集合
+     * @return 文章ID → 增量（只包含增量大于0的文章）
+     */
+    public Map<Long, Long> getPending(Collection<Long> articleIds) {
+        Map<Long, Long> result = new HashMap<>();
+        for (Long articleId : articleIds) {
+            long delta = getPending(articleId);
+            if (delta > 0) {
+                result.put(articleId, delta);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取所有文章尚未写回的浏览量增量之和
+     *
+     * @return 增量总和
+     */
+    public long getPendingTotal() {
+        return pending.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * 定时写回浏览量增量
+     */
+    @Scheduled(fixedDelayString = "${view-count.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 应用关闭前写回剩余增量
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+        log.info("浏览量累加器已清空 - 累计写回: {}", flushedTotal.sum());
+    }
+
+    /**
+     * 将当前累积的增量写回数据库
+     * 写回失败的增量加回累加器，下次重试
+     */
+    public synchronized void flush() {
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : retired.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                batch.merge(entry.getKey(), delta, Long::sum);
+            }
+        }
+        retired.clear();
+
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                // 一个周期内没有新浏览，移出累加表（并发累加会重新创建计数器）
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    retired.put(entry.getKey(), entry.getValue());
+                }
+                continue;
+            }
+            batch.merge(entry.getKey(), delta, Long::sum);
+            if (batch.size() >= FLUSH_BATCH_SIZE) {
+                write(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * 执行一次批量UPDATE，并在同一事务内累加全站总浏览量
+     * 先锁定仍未删除的文章行：与删除文章互斥，已删除文章的增量丢弃，不计入全站总浏览量
+     */
+    private void write(Map<Long, Long> batch) {
+        try {
+            Long written = transactionTemplate.execute(status -> {
+                Map<Long, Long> live = new LinkedHashMap<>();
+                for (Long articleId : articleMapper.selectLiveIdsForUpdate(batch.keySet())) {
+                    live.put(articleId, batch.get(articleId));
+                }
+                if (live.isEmpty()) {
+                    return 0L;
+                }
+                long sum = live.values().stream().mapToLong(Long::longValue).sum();
+                articleMapper.incrementViewCounts(live);
+                siteTotalsService.addViews(sum);
+                return sum;
+            });
+            flushedTotal.add(written != null ? written : 0L);
+        } catch (Exception e) {
+            batch.forEach((articleId, delta) -> pending.computeIfAbsent(articleId, k -> new LongAdder()).add(delta));
+            log.warn("浏览量写回失败，将在{}ms后重试 - 文章数: {}, 原因: {}", flushIntervalMs, batch.size(), e.toString());
+        }
+    }
+}
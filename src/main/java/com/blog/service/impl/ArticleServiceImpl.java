@@ -1,27 +1,44 @@
 package com.blog.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.dto.ArticleDTO;
+import com.blog.dto.ArticleSummaryVO;
 import com.blog.dto.ArticleVO;
+import com.blog.dto.CursorPage;
 import com.blog.dto.UserDTO;
 import com.blog.entity.Article;
-import com.blog.entity.UserCollect;
-import com.blog.entity.UserLike;
+import com.blog.entity.ArticleSummary;
 import com.blog.exception.BusinessException;
 import com.blog.mapper.ArticleMapper;
-import com.blog.mapper.UserCollectMapper;
-import com.blog.mapper.UserLikeMapper;
+import com.blog.service.ArticleCacheService;
+import com.blog.service.ArticleSearchService;
 import com.blog.service.ArticleService;
+import com.blog.service.DashboardSnapshotService;
+import com.blog.service.SiteTotalsService;
+import com.blog.service.TagIndexService;
 import com.blog.service.TagService;
+import com.blog.service.UserInteractionService;
 import com.blog.service.UserService;
+import com.blog.service.ViewCountService;
+import com.blog.util.PageUtil;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -34,16 +51,31 @@ public class ArticleServiceImpl implements ArticleService {
     private ArticleMapper articleMapper;
 
     @Autowired
-    private UserLikeMapper userLikeMapper;
+    private TagService tagService;
 
     @Autowired
-    private UserCollectMapper userCollectMapper;
+    private UserService userService;
 
     @Autowired
-    private TagService tagService;
+    private ArticleCacheService articleCacheService;
 
     @Autowired
-    private UserService userService;
+    private TagIndexService tagIndexService;
+
+    @Autowired
+    private ArticleSearchService articleSearchService;
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private SiteTotalsService siteTotalsService;
+
+    @Autowired
+    private UserInteractionService userInteractionService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -80,6 +112,11 @@ public class ArticleServiceImpl implements ArticleService {
             tagService.bindTagsToArticle(article.getId(), articleDTO.getTags());
         }
 
+        // 5. 加入全文索引并更新全站计数
+        articleSearchService.indexArticle(article.getId());
+        siteTotalsService.addArticles(1);
+        dashboardSnapshotService.markChanged();
+
         return article.getId();
     }
 
@@ -97,17 +134,16 @@ public class ArticleServiceImpl implements ArticleService {
             throw new BusinessException("无权修改该文章");
         }
 
-        // 3. 更新文章
-        if (StringUtils.hasText(articleDTO.getTitle())) {
-            article.setTitle(articleDTO.getTitle());
-        }
-        if (StringUtils.hasText(articleDTO.getContent())) {
-            article.setContent(articleDTO.getContent());
-        }
-        article.setSummary(articleDTO.getSummary());
-        article.setCoverImage(articleDTO.getCoverImage());
+        // 3. 更新文章（只写编辑的列，不覆盖并发更新的计数）
+        LambdaUpdateWrapper<Article> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(Article::getId, articleId)
+                .set(StringUtils.hasText(articleDTO.getTitle()), Article::getTitle, articleDTO.getTitle())
+                .set(StringUtils.hasText(articleDTO.getContent()), Article::getContent, articleDTO.getContent())
+                .set(Article::getSummary, articleDTO.getSummary())
+                .set(Article::getCoverImage, articleDTO.getCoverImage())
+                .set(Article::getUpdatedAt, LocalDateTime.now());
 
-        int result = articleMapper.updateById(article);
+        int result = articleMapper.update(null, updateWrapper);
         if (result == 0) {
             throw new BusinessException("更新文章失败");
         }
@@ -119,6 +155,10 @@ public class ArticleServiceImpl implements ArticleService {
                 tagService.bindTagsToArticle(articleId, articleDTO.getTags());
             }
         }
+
+        // 5. 使详情缓存失效并更新全文索引
+        articleCacheService.evict(articleId);
+        articleSearchService.indexArticle(articleId);
     }
 
     @Override
@@ -135,117 +175,256 @@ public class ArticleServiceImpl implements ArticleService {
             throw new BusinessException("无权删除该文章");
         }
 
-        // 3. 逻辑删除文章
-        article.setIsDeleted(1);
-        int result = articleMapper.updateById(article);
+        // 3. 锁定文章行并读取已写回的浏览量，再逻辑删除（updateById不会更新@TableLogic字段）
+        // 与浏览量写回互斥：之前的写回已计入viewCount，之后的写回跳过已删除文章，其增量不计入全站总浏览量
+        Integer viewCount = articleMapper.selectViewCountForUpdate(articleId);
+        int result = viewCount != null ? articleMapper.deleteById(articleId) : 0;
         if (result == 0) {
             throw new BusinessException("删除文章失败");
         }
 
         // 4. 删除标签关联
         tagService.removeArticleTags(articleId);
+
+        // 5. 使详情缓存失效并移出全文索引
+        articleCacheService.evict(articleId);
+        articleSearchService.removeArticle(articleId);
+
+        // 6. 更新全站计数（已删除文章的浏览量不计入总浏览量）
+        siteTotalsService.addArticles(-1);
+        siteTotalsService.addViews(-viewCount);
+        dashboardSnapshotService.markChanged();
     }
 
     @Override
     public ArticleVO getArticleById(Long articleId, Long userId) {
-        // 1. 查询文章
-        Article article = articleMapper.selectById(articleId);
-        if (article == null || article.getIsDeleted() == 1) {
+        // 1. 从缓存获取与访问者无关的文章快照
+        ArticleVO snapshot = articleCacheService.get(articleId, this::loadArticleSnapshot);
+        if (snapshot == null) {
             throw new BusinessException("文章不存在");
         }
 
-        // 2. 转换为VO
-        return convertToVO(article, userId);
+        // 2. 查询最新计数（主键查询，不含content）
+        Article counters = selectCounters(articleId);
+        if (counters == null) {
+            throw new BusinessException("文章不存在");
+        }
+
+        // 3. 复制快照并叠加作者、计数和当前用户状态
+        // 快照中的作者只用于取作者ID，作者信息从用户摘要缓存读取，禁言、删除后立即生效
+        ArticleVO vo = new ArticleVO();
+        BeanUtils.copyProperties(snapshot, vo);
+        vo.setTags(new ArrayList<>(snapshot.getTags()));
+        if (snapshot.getAuthor() != null) {
+            Long authorId = snapshot.getAuthor().getId();
+            vo.setAuthor(userService.getUsersByIds(Collections.singleton(authorId)).get(authorId));
+        }
+        vo.setViewCount(counters.getViewCount() + (int) viewCountService.getPending(articleId));
+        vo.setLikeCount(counters.getLikeCount());
+        vo.setCollectCount(counters.getCollectCount());
+        vo.setCommentCount(counters.getCommentCount());
+        if (userId != null) {
+            Set<Long> articleIds = Collections.singleton(articleId);
+            vo.setIsLiked(!userInteractionService.filterLiked(userId, articleIds).isEmpty());
+            vo.setIsCollected(!userInteractionService.filterCollected(userId, articleIds).isEmpty());
+        } else {
+            vo.setIsLiked(false);
+            vo.setIsCollected(false);
+        }
+        return vo;
     }
 
     @Override
-    public Page<ArticleVO> getArticlePage(Integer page, Integer pageSize, String keyword, String tag) {
-        // 1. 构建查询条件
-        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Article::getIsDeleted, 0);
+    public Page<ArticleSummaryVO> getArticlePage(Integer page, Integer pageSize, String keyword, String tag,
+                                                 Boolean matchAllTags, Long userId) {
+        PageUtil.checkPage(page, pageSize);
+        List<String> tags = StringUtils.hasText(tag) ? parseTags(tag) : Collections.emptyList();
+        boolean matchAll = Boolean.TRUE.equals(matchAllTags);
 
-        // 搜索关键词
+        // 1. 关键词搜索：通过全文索引按相关度排序（标签作为过滤条件）
         if (StringUtils.hasText(keyword)) {
-            wrapper.and(w -> w.like(Article::getTitle, keyword)
-                    .or()
-                    .like(Article::getContent, keyword));
+            Page<Long> hits = articleSearchService.search(keyword, tags, matchAll, page, pageSize);
+            return getArticlePageByIds(hits.getRecords(), hits.getTotal(), page, pageSize, userId);
+        }
+
+        // 2. 标签筛选：通过内存倒排索引得到候选文章集合，按ID倒序分页
+        if (!tags.isEmpty()) {
+            RoaringBitmap matched = tagIndexService.match(tags, matchAll);
+            List<Long> pageIds = tagIndexService.pageDescending(matched, page, pageSize);
+            return getArticlePageByIds(pageIds, matched.getLongCardinality(), page, pageSize, userId);
         }
 
-        // 按创建时间倒序
-        wrapper.orderByDesc(Article::getCreatedAt);
+        // 3. 无筛选条件：按创建时间倒序分页（只查询摘要列）
+        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Article::getIsDeleted, 0)
+                .orderByDesc(Article::getCreatedAt);
 
-        // 2. 分页查询
-        Page<Article> articlePage = new Page<>(page, pageSize);
-        articlePage = articleMapper.selectPage(articlePage, wrapper);
+        Page<ArticleSummary> articlePage = new Page<>(page, pageSize);
+        articleMapper.selectSummaryPage(articlePage, wrapper);
 
-        // 3. 转换为VO
-        Page<ArticleVO> voPage = new Page<>(page, pageSize);
+        Page<ArticleSummaryVO> voPage = new Page<>(page, pageSize);
         voPage.setTotal(articlePage.getTotal());
-        List<ArticleVO> voList = articlePage.getRecords().stream()
-                .map(article -> convertToVO(article, null))
-                .collect(Collectors.toList());
-        voPage.setRecords(voList);
+        voPage.setRecords(convertToSummaryVOList(articlePage.getRecords(), userId));
 
         return voPage;
     }
 
+    @Override
+    public CursorPage<ArticleSummaryVO> getArticleCursorPage(String cursor, Integer pageSize, Long userId) {
+        PageUtil.checkPageSize(pageSize);
+        PageUtil.Cursor position = PageUtil.decodeCursor(cursor);
+
+        // 按 (created_at, id) 定位到上一页最后一条之后，沿idx_created_at索引向后扫描，多取一条判断是否还有下一页
+        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Article::getIsDeleted, 0);
+        if (position != null) {
+            wrapper.and(w -> w.lt(Article::getCreatedAt, position.getCreatedAt())
+                    .or(o -> o.eq(Article::getCreatedAt, position.getCreatedAt())
+                            .lt(Article::getId, position.getId())));
+        }
+        wrapper.orderByDesc(Article::getCreatedAt)
+                .orderByDesc(Article::getId)
+                .last("LIMIT " + (pageSize + 1));
+        List<ArticleSummary> articles = articleMapper.selectSummaryList(wrapper);
+
+        return PageUtil.toCursorPage(articles, pageSize, ArticleSummary::getCreatedAt, ArticleSummary::getId,
+                rows -> convertToSummaryVOList(rows, userId));
+    }
+
+    @Override
+    public boolean existsArticle(Long articleId) {
+        // 通过详情缓存判断，热门文章无需查询数据库
+        return articleCacheService.get(articleId, this::loadArticleSnapshot) != null;
+    }
+
     @Override
     public void incrementViewCount(Long articleId) {
-        Article article = articleMapper.selectById(articleId);
-        if (article != null) {
-            article.setViewCount(article.getViewCount() + 1);
-            articleMapper.updateById(article);
+        // 浏览量在内存中累加后定时批量写回
+        if (existsArticle(articleId)) {
+            viewCountService.increment(articleId);
         }
     }
 
     /**
-     * 将Article转换为ArticleVO
+     * 按给定的文章ID顺序组装一页结果
      *
-     * @param article 文章实体
-     * @param userId  当前用户ID（可为null）
-     * @return 文章VO
+     * @param pageIds  当前页文章ID（已排好序）
+     * @param total    总记录数
+     * @param page     页码
+     * @param pageSize 每页数量
+     * @param userId   当前用户ID（可为null）
+     * @return 文章分页列表
      */
-    private ArticleVO convertToVO(Article article, Long userId) {
-        ArticleVO vo = new ArticleVO();
-        BeanUtils.copyProperties(article, vo);
+    private Page<ArticleSummaryVO> getArticlePageByIds(List<Long> pageIds, long total, Integer page,
+                                                       Integer pageSize, Long userId) {
+        List<ArticleSummary> articles = new ArrayList<>();
+        if (!pageIds.isEmpty()) {
+            LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+            wrapper.in(Article::getId, pageIds)
+                    .eq(Article::getIsDeleted, 0);
+            Map<Long, ArticleSummary> articleMap = articleMapper.selectSummaryList(wrapper).stream()
+                    .collect(Collectors.toMap(ArticleSummary::getId, article -> article));
+            for (Long id : pageIds) {
+                ArticleSummary article = articleMap.get(id);
+                if (article != null) {
+                    articles.add(article);
+                }
+            }
+        }
 
-        // 设置作者信息
-        UserDTO author = userService.getUserById(article.getUserId());
-        vo.setAuthor(author);
+        Page<ArticleSummaryVO> voPage = new Page<>(page, pageSize);
+        voPage.setTotal(total);
+        voPage.setRecords(convertToSummaryVOList(articles, userId));
+        return voPage;
+    }
 
-        // 设置标签
-        List<String> tags = tagService.getArticleTags(article.getId());
-        vo.setTags(tags);
+    /**
+     * 解析逗号分隔的标签参数
+     */
+    private List<String> parseTags(String tag) {
+        return Arrays.stream(tag.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .collect(Collectors.toList());
+    }
 
-        // 设置点赞和收藏状态
-        if (userId != null) {
-            vo.setIsLiked(checkUserLiked(article.getId(), userId));
-            vo.setIsCollected(checkUserCollected(article.getId(), userId));
-        } else {
-            vo.setIsLiked(false);
-            vo.setIsCollected(false);
+    /**
+     * 加载文章详情快照（不含当前用户状态），供缓存使用
+     *
+     * @param articleId 文章ID
+     * @return 文章快照，不存在时返回null
+     */
+    private ArticleVO loadArticleSnapshot(Long articleId) {
+        Article article = articleMapper.selectById(articleId);
+        if (article == null || article.getIsDeleted() == 1) {
+            return null;
         }
-
-        return vo;
+        ArticleVO snapshot = new ArticleVO();
+        BeanUtils.copyProperties(article, snapshot);
+        snapshot.setAuthor(userService.getUsersByIds(Collections.singleton(article.getUserId()))
+                .get(article.getUserId()));
+        snapshot.setTags(tagService.getArticleTags(articleId));
+        return snapshot;
     }
 
     /**
-     * 检查用户是否点赞了文章
+     * 仅查询文章的计数字段
+     *
+     * @param articleId 文章ID
+     * @return 只包含计数字段的文章实体，不存在时返回null
      */
-    private Boolean checkUserLiked(Long articleId, Long userId) {
-        LambdaQueryWrapper<UserLike> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserLike::getArticleId, articleId)
-                .eq(UserLike::getUserId, userId);
-        return userLikeMapper.selectCount(wrapper) > 0;
+    private Article selectCounters(Long articleId) {
+        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(Article::getId, Article::getViewCount, Article::getLikeCount,
+                        Article::getCollectCount, Article::getCommentCount)
+                .eq(Article::getId, articleId)
+                .eq(Article::getIsDeleted, 0);
+        return articleMapper.selectOne(wrapper);
     }
 
     /**
-     * 检查用户是否收藏了文章
+     * 将一页文章摘要批量转换为ArticleSummaryVO
+     * 作者、标签、点赞收藏状态各用一次IN查询批量获取，再在内存中组装
+     *
+     * @param articles 文章摘要列表
+     * @param userId   当前用户ID（可为null）
+     * @return 文章VO列表（顺序与入参一致）
      */
-    private Boolean checkUserCollected(Long articleId, Long userId) {
-        LambdaQueryWrapper<UserCollect> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserCollect::getArticleId, articleId)
-                .eq(UserCollect::getUserId, userId);
-        return userCollectMapper.selectCount(wrapper) > 0;
+    private List<ArticleSummaryVO> convertToSummaryVOList(List<ArticleSummary> articles, Long userId) {
+        if (CollectionUtils.isEmpty(articles)) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> articleIds = articles.stream()
+                .map(ArticleSummary::getId)
+                .collect(Collectors.toSet());
+        Set<Long> authorIds = articles.stream()
+                .map(ArticleSummary::getUserId)
+                .collect(Collectors.toSet());
+
+        // 批量获取作者信息和标签
+        Map<Long, UserDTO> authors = userService.getUsersByIds(authorIds);
+        Map<Long, List<String>> tags = tagService.getArticleTagsMap(articleIds);
+
+        // 尚未写回数据库的浏览量增量
+        Map<Long, Long> pendingViews = viewCountService.getPending(articleIds);
+
+        // 批量获取当前用户的点赞和收藏状态
+        Set<Long> likedIds = userId != null ? userInteractionService.filterLiked(userId, articleIds) : Collections.emptySet();
+        Set<Long> collectedIds = userId != null ? userInteractionService.filterCollected(userId, articleIds) : Collections.emptySet();
+
+        List<ArticleSummaryVO> voList = new ArrayList<>(articles.size());
+        for (ArticleSummary article : articles) {
+            ArticleSummaryVO vo = new ArticleSummaryVO();
+            BeanUtils.copyProperties(article, vo);
+            vo.setAuthor(authors.get(article.getUserId()));
+            vo.setTags(tags.getOrDefault(article.getId(), new ArrayList<>()));
+            vo.setViewCount(article.getViewCount() + pendingViews.getOrDefault(article.getId(), 0L).intValue());
+            vo.setIsLiked(likedIds.contains(article.getId()));
+            vo.setIsCollected(collectedIds.contains(article.getId()));
+            voList.add(vo);
+        }
+        return voList;
     }
 }
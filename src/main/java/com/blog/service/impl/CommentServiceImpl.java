@@ -4,24 +4,34 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.dto.CommentDTO;
 import com.blog.dto.CommentVO;
+import com.blog.dto.CursorPage;
 import com.blog.dto.UserDTO;
 import com.blog.entity.Article;
 import com.blog.entity.Comment;
-import com.blog.entity.User;
 import com.blog.exception.BusinessException;
 import com.blog.mapper.ArticleMapper;
 import com.blog.mapper.CommentMapper;
 import com.blog.service.CommentService;
+import com.blog.service.DashboardSnapshotService;
+import com.blog.service.NotificationService;
+import com.blog.service.SiteTotalsService;
 import com.blog.service.UserService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.blog.util.PageUtil;
+import com.blog.util.TransactionUtil;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +40,20 @@ import java.util.stream.Collectors;
 @Service
 public class CommentServiceImpl implements CommentService {
 
+    /**
+     * 楼中楼最大层级，更深的回复作为父评论的兄弟节点展示
+     */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * 物化路径的分隔符和每段（评论ID）的定长格式
+     */
+    private static final String PATH_SEPARATOR = "/";
+
+    private static final String PATH_SEGMENT_FORMAT = "%012d";
+
+    private static final Pattern PATH_PATTERN = Pattern.compile("[0-9]{12}(/[0-9]{12})*");
+
     @Autowired
     private CommentMapper commentMapper;
 
@@ -40,7 +64,19 @@ public class CommentServiceImpl implements CommentService {
     private UserService userService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private NotificationService notificationService;
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private SiteTotalsService siteTotalsService;
+
+    /**
+     * 评论列表中每条顶层评论预加载的回复数
+     */
+    @Value("${comment.preview-replies:3}")
+    private int previewReplies;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -57,26 +93,37 @@ public class CommentServiceImpl implements CommentService {
         }
 
         // 3. 检查用户是否被禁言
-        User user = userService.getUserByUsername(userService.getUserById(userId).getUsername());
-        if (user.getIsBanned() == 1) {
+        if (Boolean.TRUE.equals(userService.getUserById(userId).getIsBanned())) {
             throw new BusinessException("您已被禁言，无法发表评论");
         }
 
-        // 4. 创建评论
+        // 4. 创建评论（回复时定位在父评论的子树中）
         Comment comment = new Comment();
         comment.setArticleId(commentDTO.getArticleId());
         comment.setUserId(userId);
         comment.setContent(commentDTO.getContent());
-
-        // 处理@提及
-        if (commentDTO.getMentions() != null && !commentDTO.getMentions().isEmpty()) {
-            try {
-                String mentionsJson = objectMapper.writeValueAsString(commentDTO.getMentions());
-                comment.setMentions(mentionsJson);
-            } catch (JsonProcessingException e) {
-                // 忽略JSON转换失败
+        String parentPath = null;
+        if (commentDTO.getParentId() != null) {
+            Comment parent = commentMapper.selectById(commentDTO.getParentId());
+            if (parent == null || !parent.getArticleId().equals(commentDTO.getArticleId())) {
+                throw new BusinessException("回复的评论不存在");
+            }
+            comment.setParentId(parent.getId());
+            comment.setRootId(parent.getRootId() != null ? parent.getRootId() : parent.getId());
+            String repliedPath = pathOf(parent);
+            if (parent.getDepth() >= MAX_DEPTH) {
+                // 超过最大层级时作为父评论的兄弟节点展示，parentId仍指向被回复的评论（删除时按parentId级联）
+                parentPath = repliedPath.substring(0, repliedPath.lastIndexOf(PATH_SEPARATOR));
+                comment.setDepth(parent.getDepth());
+            } else {
+                parentPath = repliedPath;
+                comment.setDepth(parent.getDepth() + 1);
             }
+        } else {
+            comment.setDepth(0);
         }
+        comment.setPath("");
+        comment.setReplyCount(0);
 
         comment.setIsDeleted(0);
 
@@ -86,16 +133,35 @@ public class CommentServiceImpl implements CommentService {
             throw new BusinessException("发表评论失败");
         }
 
-        // 6. 更新文章评论计数
-        article.setCommentCount(article.getCommentCount() + 1);
-        articleMapper.updateById(article);
+        // 6. 写入物化路径（包含自身ID），并累加祖先评论的回复数
+        String path = parentPath != null
+                ? parentPath + PATH_SEPARATOR + pathSegment(comment.getId())
+                : pathSegment(comment.getId());
+        commentMapper.updatePath(comment.getId(), path);
+        if (parentPath != null) {
+            commentMapper.adjustReplyCounts(parsePath(parentPath), 1);
+        }
+
+        // 7. 更新文章评论计数（相对更新，不覆盖并发的点赞、收藏、浏览量写回）
+        if (articleMapper.increaseCommentCount(article.getId()) == 0) {
+            throw new BusinessException("文章不存在");
+        }
+        siteTotalsService.addComments(1);
+        dashboardSnapshotService.markChanged();
+
+        // 8. 事务提交后异步扇出@提及（解析用户、写提及索引和通知不占用发表评论的耗时）
+        if (commentDTO.getMentions() != null && !commentDTO.getMentions().isEmpty()) {
+            Long commentId = comment.getId();
+            TransactionUtil.afterCommit(() -> notificationService.submitMentions(
+                    commentId, commentDTO.getArticleId(), userId, commentDTO.getMentions()));
+        }
 
         return comment.getId();
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void deleteComment(Long commentId, Long userId) {
+    public int deleteComment(Long commentId, Long userId) {
         // 1. 查询评论
         Comment comment = commentMapper.selectById(commentId);
         if (comment == null) {
@@ -103,31 +169,83 @@ public class CommentServiceImpl implements CommentService {
         }
 
         // 2. 权限校验（只能删除自己的评论，管理员除外）
-        User user = userService.getUserByUsername(userService.getUserById(userId).getUsername());
-        if (!comment.getUserId().equals(userId) && user.getIsAdmin() != 1) {
+        if (!comment.getUserId().equals(userId) && !Boolean.TRUE.equals(userService.getUserById(userId).getIsAdmin())) {
             throw new BusinessException("无权删除该评论");
         }
 
-        // 3. 逻辑删除评论
-        comment.setIsDeleted(1);
-        int result = commentMapper.updateById(comment);
+        // 3. 逻辑删除评论（updateById不会更新@TableLogic字段）
+        int result = commentMapper.deleteById(commentId);
         if (result == 0) {
             throw new BusinessException("删除评论失败");
         }
 
-        // 4. 更新文章评论计数
-        Article article = articleMapper.selectById(comment.getArticleId());
-        if (article != null && article.getCommentCount() > 0) {
-            article.setCommentCount(article.getCommentCount() - 1);
-            articleMapper.updateById(article);
+        // 4. 一并删除子树中的回复（删除后回复无法再按父评论加载），沿(root_id, path)索引范围更新
+        String prefix = pathOf(comment) + PATH_SEPARATOR;
+        Long rootId = comment.getRootId() != null ? comment.getRootId() : comment.getId();
+        List<Long> maxDepthIds = new ArrayList<>(
+                commentMapper.selectSubtreeIdsAtDepth(rootId, prefix, upperBound(prefix), MAX_DEPTH));
+        if (comment.getDepth() != null && comment.getDepth() >= MAX_DEPTH) {
+            maxDepthIds.add(comment.getId());
+        }
+        int deleted = 1 + commentMapper.deleteSubtree(rootId, prefix, upperBound(prefix));
+
+        // 5. 扣减祖先评论的回复数
+        List<Long> ancestors = parsePath(pathOf(comment));
+        ancestors.remove(comment.getId());
+        if (!ancestors.isEmpty()) {
+            commentMapper.adjustReplyCounts(ancestors, -deleted);
+        }
+
+        // 6. 级联删除超过最大层级的回复（存放在子树之外）
+        deleted += deleteClampedReplies(rootId, maxDepthIds);
+
+        // 7. 更新文章评论计数（相对更新）
+        articleMapper.decreaseCommentCount(comment.getArticleId(), deleted);
+        siteTotalsService.addComments(-deleted);
+        dashboardSnapshotService.markChanged();
+        return deleted;
+    }
+
+    /**
+     * 按parentId逐层删除回复已删除评论的最大层级回复，并扣减各自祖先评论的回复数
+     * 这些回复作为被回复评论的兄弟节点存放，不在其路径子树中；回复它们的评论同样位于最大层级，
+     * 因此它们自身没有路径子树，逐层按parentId查找即可
+     *
+     * @param rootId    顶层评论ID
+     * @param parentIds 已删除的最大层级评论ID
+     * @return 删除的回复数
+     */
+    private int deleteClampedReplies(Long rootId, List<Long> parentIds) {
+        int deleted = 0;
+        while (!parentIds.isEmpty()) {
+            List<Comment> replies = commentMapper.selectLiveRepliesAtDepth(rootId, MAX_DEPTH, parentIds);
+            // 同一父路径下的回复祖先相同，按父路径分组批量删除
+            Map<String, List<Long>> idsByParentPath = new HashMap<>();
+            for (Comment reply : replies) {
+                String path = pathOf(reply);
+                idsByParentPath.computeIfAbsent(path.substring(0, path.lastIndexOf(PATH_SEPARATOR)),
+                        k -> new ArrayList<>()).add(reply.getId());
+            }
+            for (Map.Entry<String, List<Long>> entry : idsByParentPath.entrySet()) {
+                int count = commentMapper.deleteBatchIds(entry.getValue());
+                if (count > 0) {
+                    commentMapper.adjustReplyCounts(parsePath(entry.getKey()), -count);
+                    deleted += count;
+                }
+            }
+            parentIds = replies.stream().map(Comment::getId).collect(Collectors.toList());
         }
+        return deleted;
     }
 
     @Override
     public Page<CommentVO> getCommentsByArticleId(Long articleId, Integer page, Integer pageSize) {
-        // 1. 构建查询条件
+        PageUtil.checkPage(page, pageSize);
+
+        // 1. 构建查询条件（只查顶层评论，沿idx_article_root_created索引扫描）
         LambdaQueryWrapper<Comment> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(Comment::getArticleId, articleId)
+                .isNull(Comment::getRootId)
                 .eq(Comment::getIsDeleted, 0)
                 .orderByDesc(Comment::getCreatedAt);
 
@@ -135,31 +253,187 @@ public class CommentServiceImpl implements CommentService {
         Page<Comment> commentPage = new Page<>(page, pageSize);
         commentPage = commentMapper.selectPage(commentPage, wrapper);
 
-        // 3. 转换为VO
+        // 3. 转换为VO并附带每条顶层评论的前几条回复
         Page<CommentVO> voPage = new Page<>(page, pageSize);
         voPage.setTotal(commentPage.getTotal());
-        List<CommentVO> voList = commentPage.getRecords().stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
-        voPage.setRecords(voList);
+        voPage.setRecords(convertToThreadVOList(commentPage.getRecords()));
 
         return voPage;
     }
 
+    @Override
+    public CursorPage<CommentVO> getCommentCursorPage(Long articleId, String cursor, Integer pageSize) {
+        PageUtil.checkPageSize(pageSize);
+        PageUtil.Cursor position = PageUtil.decodeCursor(cursor);
+
+        // 按 (created_at, id) 定位顶层评论，沿idx_article_root_created索引扫描，多取一条判断是否还有下一页
+        LambdaQueryWrapper<Comment> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Comment::getArticleId, articleId)
+                .isNull(Comment::getRootId)
+                .eq(Comment::getIsDeleted, 0);
+        if (position != null) {
+            wrapper.and(w -> w.lt(Comment::getCreatedAt, position.getCreatedAt())
+                    .or(o -> o.eq(Comment::getCreatedAt, position.getCreatedAt())
+                            .lt(Comment::getId, position.getId())));
+        }
+        wrapper.orderByDesc(Comment::getCreatedAt)
+                .orderByDesc(Comment::getId)
+                .last("LIMIT " + (pageSize + 1));
+        List<Comment> comments = commentMapper.selectList(wrapper);
+
+        return PageUtil.toCursorPage(comments, pageSize, Comment::getCreatedAt, Comment::getId,
+                this::convertToThreadVOList);
+    }
+
+    @Override
+    public CursorPage<CommentVO> getReplies(Long commentId, String cursor, Integer pageSize) {
+        PageUtil.checkPageSize(pageSize);
+        Comment comment = commentMapper.selectById(commentId);
+        if (comment == null) {
+            throw new BusinessException("评论不存在");
+        }
+
+        // 子树内的路径都以 评论路径 + "/" 开头：在(root_id, path)索引上做一段范围扫描
+        String prefix = pathOf(comment) + PATH_SEPARATOR;
+        String afterPath = prefix;
+        if (StringUtils.hasText(cursor)) {
+            if (!cursor.startsWith(prefix) || !PATH_PATTERN.matcher(cursor).matches()) {
+                throw new BusinessException("无效的分页游标");
+            }
+            afterPath = cursor;
+        }
+        Long rootId = comment.getRootId() != null ? comment.getRootId() : comment.getId();
+        List<Comment> keys = commentMapper.selectSubtreeKeys(rootId, afterPath, upperBound(prefix), pageSize + 1);
+
+        CursorPage<CommentVO> result = new CursorPage<>();
+        if (keys.size() > pageSize) {
+            keys = keys.subList(0, pageSize);
+            result.setHasMore(true);
+            result.setNextCursor(keys.get(keys.size() - 1).getPath());
+        }
+        result.setRecords(convertToVOList(loadByKeys(keys)));
+        return result;
+    }
+
     /**
-     * 将Comment转换为CommentVO
+     * 将一页顶层评论转换为CommentVO，并附带每条评论按楼中楼顺序的前几条回复
+     * 回复的键每个顶层评论一段索引范围扫描，回复内容和整页作者各一次批量查询
      */
-    private CommentVO convertToVO(Comment comment) {
-        CommentVO vo = new CommentVO();
-        BeanUtils.copyProperties(comment, vo);
+    private List<CommentVO> convertToThreadVOList(List<Comment> topLevel) {
+        if (topLevel.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> rootIds = topLevel.stream().map(Comment::getId).collect(Collectors.toList());
+        List<Comment> replyKeys = commentMapper.selectFirstReplyKeys(rootIds, previewReplies);
+        List<Comment> replies = loadByKeys(replyKeys);
+
+        List<Comment> all = new ArrayList<>(topLevel.size() + replies.size());
+        all.addAll(topLevel);
+        all.addAll(replies);
+        List<CommentVO> allVOs = convertToVOList(all);
+
+        Map<Long, List<CommentVO>> repliesByRoot = allVOs.subList(topLevel.size(), allVOs.size()).stream()
+                .collect(Collectors.groupingBy(CommentVO::getRootId));
+        Map<Long, String> lastKeyPath = new HashMap<>();
+        Map<Long, Integer> keyCount = new HashMap<>();
+        for (Comment key : replyKeys) {
+            lastKeyPath.put(key.getRootId(), key.getPath());
+            keyCount.merge(key.getRootId(), 1, Integer::sum);
+        }
+
+        List<CommentVO> voList = allVOs.subList(0, topLevel.size());
+        for (CommentVO vo : voList) {
+            vo.setReplies(repliesByRoot.getOrDefault(vo.getId(), new ArrayList<>()));
+            // 取满了预览条数且还有未展示的回复时，返回继续加载的游标
+            if (keyCount.getOrDefault(vo.getId(), 0) == previewReplies
+                    && vo.getReplyCount() != null && vo.getReplyCount() > vo.getReplies().size()) {
+                vo.setRepliesCursor(lastKeyPath.get(vo.getId()));
+            }
+        }
+        return new ArrayList<>(voList);
+    }
 
-        // 设置作者信息
-        if (comment.getUserId() != null) {
-            UserDTO author = userService.getUserById(comment.getUserId());
-            vo.setAuthor(author);
-            vo.setIsBanned(author.getIsBanned());
+    /**
+     * 按键批量加载评论（已删除的评论被跳过），保持键的顺序
+     */
+    private List<Comment> loadByKeys(List<Comment> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Comment> comments = commentMapper.selectBatchIds(
+                        keys.stream().map(Comment::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Comment::getId, comment -> comment));
+        List<Comment> result = new ArrayList<>(keys.size());
+        for (Comment key : keys) {
+            Comment comment = comments.get(key.getId());
+            if (comment != null) {
+                result.add(comment);
+            }
         }
+        return result;
+    }
 
-        return vo;
+    /**
+     * 将一页Comment转换为CommentVO
+     * 整页评论的作者去重后一次批量查询
+     */
+    private List<CommentVO> convertToVOList(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> userIds = comments.stream()
+                .map(Comment::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, UserDTO> authors = userService.getUsersByIds(userIds);
+
+        List<CommentVO> voList = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            CommentVO vo = new CommentVO();
+            BeanUtils.copyProperties(comment, vo);
+
+            // 设置作者信息
+            UserDTO author = comment.getUserId() != null ? authors.get(comment.getUserId()) : null;
+            if (author != null) {
+                vo.setAuthor(author);
+                vo.setIsBanned(author.getIsBanned());
+            }
+            voList.add(vo);
+        }
+        return voList;
+    }
+
+    /**
+     * 评论的物化路径（支持楼中楼之前创建、路径为空的顶层评论）
+     */
+    private String pathOf(Comment comment) {
+        return StringUtils.hasText(comment.getPath()) ? comment.getPath() : pathSegment(comment.getId());
+    }
+
+    /**
+     * 物化路径中评论ID的定长表示（定长保证按字符串排序与按ID排序一致）
+     */
+    private String pathSegment(Long commentId) {
+        return String.format(PATH_SEGMENT_FORMAT, commentId);
+    }
+
+    /**
+     * 解析物化路径中的评论ID（从顶层到自身）
+     */
+    private List<Long> parsePath(String path) {
+        List<Long> ids = new ArrayList<>();
+        if (StringUtils.hasText(path)) {
+            for (String segment : path.split(PATH_SEPARATOR)) {
+                ids.add(Long.parseLong(segment));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 以prefix开头的路径的上界：prefix以"/"结尾，把它换成下一个字符"0"
+     */
+    private String upperBound(String prefix) {
+        return prefix.substring(0, prefix.length() - 1) + (char) (PATH_SEPARATOR.charAt(0) + 1);
     }
 }
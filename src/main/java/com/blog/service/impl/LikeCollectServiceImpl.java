@@ -1,24 +1,33 @@
 package com.blog.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.blog.dto.ArticleVO;
+import com.blog.dto.ArticleSummaryVO;
+import com.blog.dto.CursorPage;
+import com.blog.dto.InteractionStatusVO;
 import com.blog.dto.UserDTO;
 import com.blog.entity.Article;
-import com.blog.entity.User;
+import com.blog.entity.ArticleSummary;
 import com.blog.entity.UserCollect;
 import com.blog.entity.UserLike;
 import com.blog.exception.BusinessException;
 import com.blog.mapper.ArticleMapper;
 import com.blog.mapper.UserCollectMapper;
 import com.blog.mapper.UserLikeMapper;
-import com.blog.mapper.UserMapper;
 import com.blog.service.LikeCollectService;
+import com.blog.service.UserInteractionService;
+import com.blog.service.UserService;
+import com.blog.service.ViewCountService;
+import com.blog.util.PageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 点赞收藏服务实现类
@@ -36,236 +45,224 @@ public class LikeCollectServiceImpl implements LikeCollectService {
     private ArticleMapper articleMapper;
 
     @Autowired
-    private UserMapper userMapper;
+    private UserService userService;
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private UserInteractionService userInteractionService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void likeArticle(Long articleId, Long userId) {
-        // 1. 检查文章是否存在
-        Article article = articleMapper.selectById(articleId);
-        if (article == null || article.getIsDeleted() == 1) {
-            throw new BusinessException("文章不存在");
-        }
-
-        // 2. 检查是否已点赞
-        LambdaQueryWrapper<UserLike> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserLike::getArticleId, articleId)
-                .eq(UserLike::getUserId, userId);
-        UserLike existLike = userLikeMapper.selectOne(wrapper);
-        if (existLike != null) {
+        // 1. 添加点赞记录（唯一索引保证同一用户只能点赞一次）
+        if (userLikeMapper.insertIgnore(userId, articleId) == 0) {
             throw new BusinessException("您已点赞过该文章");
         }
 
-        // 3. 创建点赞记录
-        UserLike userLike = new UserLike();
-        userLike.setArticleId(articleId);
-        userLike.setUserId(userId);
-        userLikeMapper.insert(userLike);
-
-        // 4. 更新文章点赞计数
-        article.setLikeCount(article.getLikeCount() + 1);
-        articleMapper.updateById(article);
+        // 2. 更新文章点赞计数（文章不存在时回滚点赞记录）
+        if (articleMapper.increaseLikeCount(articleId) == 0) {
+            throw new BusinessException("文章不存在");
+        }
+        userInteractionService.onInteractionChanged(userId);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void unlikeArticle(Long articleId, Long userId) {
-        // 1. 查询点赞记录
-        LambdaQueryWrapper<UserLike> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserLike::getArticleId, articleId)
-                .eq(UserLike::getUserId, userId);
-        UserLike userLike = userLikeMapper.selectOne(wrapper);
-        if (userLike == null) {
+        // 1. 删除点赞记录
+        if (userLikeMapper.deleteByUserAndArticle(userId, articleId) == 0) {
             throw new BusinessException("您未点赞该文章");
         }
 
-        // 2. 删除点赞记录
-        userLikeMapper.deleteById(userLike.getId());
-
-        // 3. 更新文章点赞计数
-        Article article = articleMapper.selectById(articleId);
-        if (article != null && article.getLikeCount() > 0) {
-            article.setLikeCount(article.getLikeCount() - 1);
-            articleMapper.updateById(article);
-        }
+        // 2. 更新文章点赞计数
+        articleMapper.decreaseLikeCount(articleId);
+        userInteractionService.onInteractionChanged(userId);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void collectArticle(Long articleId, Long userId) {
-        // 1. 检查文章是否存在
-        Article article = articleMapper.selectById(articleId);
-        if (article == null || article.getIsDeleted() == 1) {
-            throw new BusinessException("文章不存在");
-        }
-
-        // 2. 检查是否已收藏
-        LambdaQueryWrapper<UserCollect> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserCollect::getArticleId, articleId)
-                .eq(UserCollect::getUserId, userId);
-        UserCollect existCollect = userCollectMapper.selectOne(wrapper);
-        if (existCollect != null) {
+        // 1. 添加收藏记录（唯一索引保证同一用户只能收藏一次）
+        if (userCollectMapper.insertIgnore(userId, articleId) == 0) {
             throw new BusinessException("您已收藏过该文章");
         }
 
-        // 3. 创建收藏记录
-        UserCollect userCollect = new UserCollect();
-        userCollect.setArticleId(articleId);
-        userCollect.setUserId(userId);
-        userCollectMapper.insert(userCollect);
-
-        // 4. 更新文章收藏计数
-        article.setCollectCount(article.getCollectCount() + 1);
-        articleMapper.updateById(article);
+        // 2. 更新文章收藏计数（文章不存在时回滚收藏记录）
+        if (articleMapper.increaseCollectCount(articleId) == 0) {
+            throw new BusinessException("文章不存在");
+        }
+        userInteractionService.onInteractionChanged(userId);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void uncollectArticle(Long articleId, Long userId) {
-        // 1. 查询收藏记录
-        LambdaQueryWrapper<UserCollect> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserCollect::getArticleId, articleId)
-                .eq(UserCollect::getUserId, userId);
-        UserCollect userCollect = userCollectMapper.selectOne(wrapper);
-        if (userCollect == null) {
+        // 1. 删除收藏记录
+        if (userCollectMapper.deleteByUserAndArticle(userId, articleId) == 0) {
             throw new BusinessException("您未收藏该文章");
         }
 
-        // 2. 删除收藏记录
-        userCollectMapper.deleteById(userCollect.getId());
-
-        // 3. 更新文章收藏计数
-        Article article = articleMapper.selectById(articleId);
-        if (article != null && article.getCollectCount() > 0) {
-            article.setCollectCount(article.getCollectCount() - 1);
-            articleMapper.updateById(article);
-        }
+        // 2. 更新文章收藏计数
+        articleMapper.decreaseCollectCount(articleId);
+        userInteractionService.onInteractionChanged(userId);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean toggleLike(Long articleId, Long userId) {
-        // 检查是否已点赞
-        LambdaQueryWrapper<UserLike> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserLike::getArticleId, articleId)
-                .eq(UserLike::getUserId, userId);
-        UserLike existLike = userLikeMapper.selectOne(wrapper);
-
-        if (existLike != null) {
-            // 已点赞，取消点赞
-            userLikeMapper.deleteById(existLike.getId());
-            Article article = articleMapper.selectById(articleId);
-            if (article != null && article.getLikeCount() > 0) {
-                article.setLikeCount(article.getLikeCount() - 1);
-                articleMapper.updateById(article);
-            }
-            return false;
-        } else {
-            // 未点赞，添加点赞
-            Article article = articleMapper.selectById(articleId);
-            if (article == null || article.getIsDeleted() == 1) {
+        // 先尝试点赞：插入成功说明之前未点赞
+        if (userLikeMapper.insertIgnore(userId, articleId) > 0) {
+            if (articleMapper.increaseLikeCount(articleId) == 0) {
                 throw new BusinessException("文章不存在");
             }
-            UserLike userLike = new UserLike();
-            userLike.setArticleId(articleId);
-            userLike.setUserId(userId);
-            userLikeMapper.insert(userLike);
-            article.setLikeCount(article.getLikeCount() + 1);
-            articleMapper.updateById(article);
+            userInteractionService.onInteractionChanged(userId);
             return true;
         }
+
+        // 已点赞，取消点赞（记录已被并发请求删除时不重复扣减计数）
+        if (userLikeMapper.deleteByUserAndArticle(userId, articleId) > 0) {
+            articleMapper.decreaseLikeCount(articleId);
+        }
+        userInteractionService.onInteractionChanged(userId);
+        return false;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean toggleCollect(Long articleId, Long userId) {
-        // 检查是否已收藏
-        LambdaQueryWrapper<UserCollect> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserCollect::getArticleId, articleId)
-                .eq(UserCollect::getUserId, userId);
-        UserCollect existCollect = userCollectMapper.selectOne(wrapper);
-
-        if (existCollect != null) {
-            // 已收藏，取消收藏
-            userCollectMapper.deleteById(existCollect.getId());
-            Article article = articleMapper.selectById(articleId);
-            if (article != null && article.getCollectCount() > 0) {
-                article.setCollectCount(article.getCollectCount() - 1);
-                articleMapper.updateById(article);
-            }
-            return false;
-        } else {
-            // 未收藏，添加收藏
-            Article article = articleMapper.selectById(articleId);
-            if (article == null || article.getIsDeleted() == 1) {
+        // 先尝试收藏：插入成功说明之前未收藏
+        if (userCollectMapper.insertIgnore(userId, articleId) > 0) {
+            if (articleMapper.increaseCollectCount(articleId) == 0) {
                 throw new BusinessException("文章不存在");
             }
-            UserCollect userCollect = new UserCollect();
-            userCollect.setArticleId(articleId);
-            userCollect.setUserId(userId);
-            userCollectMapper.insert(userCollect);
-            article.setCollectCount(article.getCollectCount() + 1);
-            articleMapper.updateById(article);
+            userInteractionService.onInteractionChanged(userId);
             return true;
         }
+
+        // 已收藏，取消收藏（记录已被并发请求删除时不重复扣减计数）
+        if (userCollectMapper.deleteByUserAndArticle(userId, articleId) > 0) {
+            articleMapper.decreaseCollectCount(articleId);
+        }
+        userInteractionService.onInteractionChanged(userId);
+        return false;
     }
 
     @Override
-    public List<ArticleVO> getLikedArticles(Long userId) {
-        // 获取用户点赞的文章ID列表
-        LambdaQueryWrapper<UserLike> likeWrapper = new LambdaQueryWrapper<>();
-        likeWrapper.eq(UserLike::getUserId, userId)
-                .orderByDesc(UserLike::getCreatedAt);
-        List<UserLike> likes = userLikeMapper.selectList(likeWrapper);
-
-        List<ArticleVO> articles = new ArrayList<>();
-        for (UserLike like : likes) {
-            Article article = articleMapper.selectById(like.getArticleId());
-            if (article != null && article.getIsDeleted() == 0) {
-                articles.add(convertToVO(article));
-            }
+    public List<InteractionStatusVO> getInteractionStatus(List<Long> articleIds, Long userId) {
+        Set<Long> ids = new LinkedHashSet<>(articleIds);
+        if (ids.size() > PageUtil.MAX_PAGE_SIZE) {
+            throw new BusinessException("一次最多查询" + PageUtil.MAX_PAGE_SIZE + "篇文章");
         }
-        return articles;
+
+        // 从用户互动位图中判断（位图未缓存时每张表查询一次）
+        Set<Long> likedIds = userInteractionService.filterLiked(userId, ids);
+        Set<Long> collectedIds = userInteractionService.filterCollected(userId, ids);
+
+        List<InteractionStatusVO> result = new ArrayList<>(ids.size());
+        for (Long articleId : ids) {
+            InteractionStatusVO status = new InteractionStatusVO();
+            status.setArticleId(articleId);
+            status.setIsLiked(likedIds.contains(articleId));
+            status.setIsCollected(collectedIds.contains(articleId));
+            result.add(status);
+        }
+        return result;
     }
 
     @Override
-    public List<ArticleVO> getCollectedArticles(Long userId) {
-        // 获取用户收藏的文章ID列表
-        LambdaQueryWrapper<UserCollect> collectWrapper = new LambdaQueryWrapper<>();
-        collectWrapper.eq(UserCollect::getUserId, userId)
-                .orderByDesc(UserCollect::getCreatedAt);
-        List<UserCollect> collects = userCollectMapper.selectList(collectWrapper);
-
-        List<ArticleVO> articles = new ArrayList<>();
-        for (UserCollect collect : collects) {
-            Article article = articleMapper.selectById(collect.getArticleId());
-            if (article != null && article.getIsDeleted() == 0) {
-                articles.add(convertToVO(article));
+    public CursorPage<ArticleSummaryVO> getLikedArticleCursorPage(Long userId, String cursor, Integer pageSize) {
+        PageUtil.checkPageSize(pageSize);
+        PageUtil.Cursor position = PageUtil.decodeCursor(cursor);
+
+        // 按 (created_at, id) 定位，沿idx_user_created索引扫描，多取一条判断是否还有下一页
+        LambdaQueryWrapper<UserLike> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(UserLike::getUserId, userId);
+        if (position != null) {
+            wrapper.and(w -> w.lt(UserLike::getCreatedAt, position.getCreatedAt())
+                    .or(o -> o.eq(UserLike::getCreatedAt, position.getCreatedAt())
+                            .lt(UserLike::getId, position.getId())));
+        }
+        wrapper.orderByDesc(UserLike::getCreatedAt)
+                .orderByDesc(UserLike::getId)
+                .last("LIMIT " + (pageSize + 1));
+        List<UserLike> likes = userLikeMapper.selectList(wrapper);
+
+        return PageUtil.toCursorPage(likes, pageSize, UserLike::getCreatedAt, UserLike::getId,
+                rows -> loadArticles(rows.stream().map(UserLike::getArticleId).collect(Collectors.toList()), userId));
+    }
+
+    @Override
+    public CursorPage<ArticleSummaryVO> getCollectedArticleCursorPage(Long userId, String cursor, Integer pageSize) {
+        PageUtil.checkPageSize(pageSize);
+        PageUtil.Cursor position = PageUtil.decodeCursor(cursor);
+
+        // 按 (created_at, id) 定位，沿idx_user_created索引扫描，多取一条判断是否还有下一页
+        LambdaQueryWrapper<UserCollect> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(UserCollect::getUserId, userId);
+        if (position != null) {
+            wrapper.and(w -> w.lt(UserCollect::getCreatedAt, position.getCreatedAt())
+                    .or(o -> o.eq(UserCollect::getCreatedAt, position.getCreatedAt())
+                            .lt(UserCollect::getId, position.getId())));
+        }
+        wrapper.orderByDesc(UserCollect::getCreatedAt)
+                .orderByDesc(UserCollect::getId)
+                .last("LIMIT " + (pageSize + 1));
+        List<UserCollect> collects = userCollectMapper.selectList(wrapper);
+
+        return PageUtil.toCursorPage(collects, pageSize, UserCollect::getCreatedAt, UserCollect::getId,
+                rows -> loadArticles(rows.stream().map(UserCollect::getArticleId).collect(Collectors.toList()), userId));
+    }
+
+    /**
+     * 按给定顺序加载一页文章摘要（不含正文）并转换为VO，已删除的文章被跳过
+     * 文章和作者各用一次IN查询批量加载，点赞/收藏状态从用户互动位图中判断
+     *
+     * @param articleIds 文章ID列表
+     * @param userId     当前用户ID
+     * @return 文章列表
+     */
+    private List<ArticleSummaryVO> loadArticles(List<Long> articleIds, Long userId) {
+        List<ArticleSummaryVO> articles = new ArrayList<>();
+        if (articleIds.isEmpty()) {
+            return articles;
+        }
+        LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(Article::getId, articleIds)
+                .eq(Article::getIsDeleted, 0);
+        Map<Long, ArticleSummary> articleMap = articleMapper.selectSummaryList(wrapper).stream()
+                .collect(Collectors.toMap(ArticleSummary::getId, article -> article));
+        Map<Long, UserDTO> authors = userService.getUsersByIds(articleMap.values().stream()
+                .map(ArticleSummary::getUserId)
+                .collect(Collectors.toSet()));
+        Set<Long> likedIds = userInteractionService.filterLiked(userId, articleMap.keySet());
+        Set<Long> collectedIds = userInteractionService.filterCollected(userId, articleMap.keySet());
+
+        for (Long articleId : articleIds) {
+            ArticleSummary article = articleMap.get(articleId);
+            if (article != null) {
+                ArticleSummaryVO vo = convertToVO(article, authors.get(article.getUserId()));
+                vo.setIsLiked(likedIds.contains(articleId));
+                vo.setIsCollected(collectedIds.contains(articleId));
+                articles.add(vo);
             }
         }
         return articles;
     }
 
-    private ArticleVO convertToVO(Article article) {
-        ArticleVO vo = new ArticleVO();
+    private ArticleSummaryVO convertToVO(ArticleSummary article, UserDTO author) {
+        ArticleSummaryVO vo = new ArticleSummaryVO();
         vo.setId(article.getId());
         vo.setTitle(article.getTitle());
         vo.setSummary(article.getSummary());
-        vo.setViewCount(article.getViewCount());
+        vo.setCoverImage(article.getCoverImage());
+        vo.setViewCount(article.getViewCount() + (int) viewCountService.getPending(article.getId()));
         vo.setLikeCount(article.getLikeCount());
         vo.setCollectCount(article.getCollectCount());
         vo.setCommentCount(article.getCommentCount());
         vo.setCreatedAt(article.getCreatedAt());
-
-        // 获取作者信息
-        User author = userMapper.selectById(article.getUserId());
-        if (author != null) {
-            UserDTO authorDTO = new UserDTO();
-            authorDTO.setId(author.getId());
-            authorDTO.setUsername(author.getUsername());
-            authorDTO.setNickname(author.getNickname());
-            vo.setAuthor(authorDTO);
-        }
+        vo.setAuthor(author);
         return vo;
     }
 }
@@ -0,0 +1,411 @@
+package com.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blog.dto.CursorPage;
+import com.blog.dto.NotificationVO;
+import com.blog.dto.UserDTO;
+import com.blog.entity.Comment;
+import com.blog.entity.CommentMention;
+import com.blog.entity.Notification;
+import com.blog.entity.User;
+import com.blog.mapper.CommentMapper;
+import com.blog.mapper.CommentMentionMapper;
+import com.blog.mapper.NotificationMapper;
+import com.blog.mapper.UserMapper;
+import com.blog.service.NotificationService;
+import com.blog.service.UserService;
+import com.blog.util.MpscRingBuffer;
+import com.blog.util.PageUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 通知服务实现类
+ * 评论中的@提及在事务提交后放入有界无锁环形队列，由单独的扇出线程攒批处理：
+ * 一批评论的用户名一次查询解析为用户ID，提及索引和通知各用多行插入写入（同一事务），
+ * 整批写入失败时逐条评论重试，单条评论的问题不影响同批的其他评论。
+ * 队列满时丢弃并计数，不阻塞发表评论。
+ */
+@Slf4j
+@Service
+public class NotificationServiceImpl implements NotificationService {
+
+    /**
+     * 队列为空时扇出线程的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * 关闭时等待扇出线程清空队列的最长时间（毫秒）
+     */
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    /**
+     * 每条INSERT语句最多包含的行数
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * 通知中评论摘要的最大长度
+     */
+    private static final int EXCERPT_LENGTH = 100;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private CommentMentionMapper commentMentionMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${notification.fanout.buffer-size:4096}")
+    private int bufferSize;
+
+    /**
+     * 每批最多处理的评论数
+     */
+    @Value("${notification.fanout.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * 每条评论最多通知的用户数，超出的提及被忽略
+     */
+    @Value("${notification.max-mentions-per-comment:20}")
+    private int maxMentionsPerComment;
+
+    private MpscRingBuffer<MentionTask> buffer;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(bufferSize);
+        running = true;
+        worker = new Thread(this::runWorker, "notification-fanout");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("通知扇出线程已启动 - 队列容量: {}, 批大小: {}", buffer.capacity(), batchSize);
+    }
+
+    /**
+     * 停止接收并等待扇出线程处理完队列中剩余的提及
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(SHUTDOWN_TIMEOUT_MS);
+        if (worker.isAlive()) {
+            log.warn("通知扇出线程未能在{}ms内退出，剩余评论: {}", SHUTDOWN_TIMEOUT_MS, buffer.size());
+        }
+        log.info("通知扇出线程已停止 - 累计通知: {}, 丢弃评论: {}, 失败评论: {}",
+                delivered.sum(), dropped.sum(), failed.sum());
+    }
+
+    @Override
+    public void submitMentions(Long commentId, Long articleId, Long actorId, Collection<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            return;
+        }
+        // 用户名按不区分大小写匹配（与数据库排序规则一致），统一转为小写去重
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String username : usernames) {
+            if (StringUtils.hasText(username)) {
+                normalized.add(normalizeUsername(username));
+            }
+            if (normalized.size() >= maxMentionsPerComment) {
+                break;
+            }
+        }
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        if (!running) {
+            dropped.increment();
+            log.warn("通知服务已停止，丢弃评论的提及 - 评论ID: {}, 提及数: {}", commentId, normalized.size());
+        } else if (buffer.offer(new MentionTask(commentId, articleId, actorId, normalized))) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+            log.warn("通知扇出队列已满，丢弃评论的提及 - 评论ID: {}, 提及数: {}", commentId, normalized.size());
+        }
+    }
+
+    @Override
+    public CursorPage<NotificationVO> getNotificationCursorPage(Long userId, String cursor, Integer pageSize) {
+        PageUtil.checkPageSize(pageSize);
+        PageUtil.Cursor position = PageUtil.decodeCursor(cursor);
+
+        // 按 (created_at, id) 定位，沿idx_user_created索引扫描，多取一条判断是否还有下一页
+        LambdaQueryWrapper<Notification> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Notification::getUserId, userId);
+        if (position != null) {
+            wrapper.and(w -> w.lt(Notification::getCreatedAt, position.getCreatedAt())
+                    .or(o -> o.eq(Notification::getCreatedAt, position.getCreatedAt())
+                            .lt(Notification::getId, position.getId())));
+        }
+        wrapper.orderByDesc(Notification::getCreatedAt)
+                .orderByDesc(Notification::getId)
+                .last("LIMIT " + (pageSize + 1));
+        List<Notification> notifications = notificationMapper.selectList(wrapper);
+
+        return PageUtil.toCursorPage(notifications, pageSize, Notification::getCreatedAt, Notification::getId,
+                this::convertToVOList);
+    }
+
+    @Override
+    public long getUnreadCount(Long userId) {
+        LambdaQueryWrapper<Notification> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Notification::getUserId, userId)
+                .eq(Notification::getIsRead, 0);
+        return notificationMapper.selectCount(wrapper);
+    }
+
+    @Override
+    public void markAllRead(Long userId) {
+        notificationMapper.markAllRead(userId);
+    }
+
+    @Override
+    public Map<String, Object> getFanoutStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("accepted", accepted.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("delivered", delivered.sum());
+        stats.put("failed", failed.sum());
+        stats.put("batches", batches.sum());
+        return stats;
+    }
+
+    /**
+     * 扇出线程主循环：有提及就攒一批处理；停止后处理完剩余提及再退出
+     */
+    private void runWorker() {
+        List<MentionTask> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            fanOut(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * 处理一批评论的提及：一次查询解析所有用户名，提及索引和通知在同一事务中多行插入
+     * 整批写入失败时逐条评论重试，仍然失败的评论丢弃并计数（通知不影响业务）
+     */
+    private void fanOut(List<MentionTask> tasks) {
+        Map<String, Long> userIds;
+        try {
+            userIds = resolveUsernames(tasks);
+        } catch (Exception e) {
+            failed.add(tasks.size());
+            log.error("通知扇出解析用户名失败 - 评论数: {}, 原因: {}", tasks.size(), e.toString());
+            return;
+        }
+
+        List<MentionRows> rows = new ArrayList<>(tasks.size());
+        for (MentionTask task : tasks) {
+            MentionRows taskRows = buildRows(task, userIds);
+            if (!taskRows.mentions().isEmpty()) {
+                rows.add(taskRows);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(rows);
+            batches.increment();
+            return;
+        } catch (Exception e) {
+            log.warn("通知批量写入失败，逐条评论重试 - 评论数: {}, 原因: {}", rows.size(), e.toString());
+        }
+        for (MentionRows taskRows : rows) {
+            try {
+                write(List.of(taskRows));
+            } catch (Exception e) {
+                failed.increment();
+                log.error("通知扇出失败 - 评论ID: {}, 原因: {}", taskRows.commentId(), e.toString());
+            }
+        }
+        batches.increment();
+    }
+
+    /**
+     * 一次查询解析一批评论中提及的全部用户名
+     *
+     * @return 小写用户名 → 用户ID
+     */
+    private Map<String, Long> resolveUsernames(List<MentionTask> tasks) {
+        Set<String> usernames = new HashSet<>();
+        tasks.forEach(task -> usernames.addAll(task.usernames()));
+        LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(User::getId, User::getUsername).in(User::getUsername, usernames);
+        return userMapper.selectList(wrapper).stream()
+                .collect(Collectors.toMap(user -> normalizeUsername(user.getUsername()), User::getId, (a, b) -> a));
+    }
+
+    /**
+     * 生成一条评论的提及索引和通知行（提及自己只写提及索引，不发通知）
+     */
+    private MentionRows buildRows(MentionTask task, Map<String, Long> userIds) {
+        List<CommentMention> mentions = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        for (String username : task.usernames()) {
+            Long userId = userIds.get(username);
+            if (userId == null) {
+                continue;
+            }
+            CommentMention mention = new CommentMention();
+            mention.setCommentId(task.commentId());
+            mention.setUserId(userId);
+            mentions.add(mention);
+
+            if (userId.equals(task.actorId())) {
+                continue;
+            }
+            Notification notification = new Notification();
+            notification.setUserId(userId);
+            notification.setType(Notification.TYPE_MENTION);
+            notification.setActorId(task.actorId());
+            notification.setArticleId(task.articleId());
+            notification.setCommentId(task.commentId());
+            notifications.add(notification);
+        }
+        return new MentionRows(task.commentId(), mentions, notifications);
+    }
+
+    /**
+     * 在同一事务中多行插入若干评论的提及索引和通知
+     */
+    private void write(List<MentionRows> rows) {
+        List<CommentMention> mentions = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        for (MentionRows taskRows : rows) {
+            mentions.addAll(taskRows.mentions());
+            notifications.addAll(taskRows.notifications());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            insertInChunks(mentions, commentMentionMapper::insertIgnoreBatch);
+            insertInChunks(notifications, notificationMapper::insertBatch);
+        });
+        delivered.add(notifications.size());
+    }
+
+    private String normalizeUsername(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private <T> void insertInChunks(List<T> rows, Function<List<T>, Integer> insert) {
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            insert.apply(rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+        }
+    }
+
+    /**
+     * 将一页通知转换为NotificationVO
+     * 整页的触发者和评论各一次批量查询
+     */
+    private List<NotificationVO> convertToVOList(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> actorIds = notifications.stream()
+                .map(Notification::getActorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, UserDTO> actors = userService.getUsersByIds(actorIds);
+
+        Set<Long> commentIds = notifications.stream()
+                .map(Notification::getCommentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Comment> comments = commentIds.isEmpty() ? Map.of() : commentMapper.selectBatchIds(commentIds).stream()
+                .collect(Collectors.toMap(Comment::getId, comment -> comment));
+
+        List<NotificationVO> voList = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            NotificationVO vo = new NotificationVO();
+            BeanUtils.copyProperties(notification, vo);
+            if (notification.getActorId() != null) {
+                vo.setActor(actors.get(notification.getActorId()));
+            }
+            Comment comment = notification.getCommentId() != null ? comments.get(notification.getCommentId()) : null;
+            if (comment != null) {
+                String content = comment.getContent();
+                vo.setExcerpt(content.length() > EXCERPT_LENGTH ? content.substring(0, EXCERPT_LENGTH) + "..." : content);
+            }
+            voList.add(vo);
+        }
+        return voList;
+    }
+
+    /**
+     * 一条评论待扇出的提及
+     *
+     * @param commentId 评论ID
+     * @param articleId 文章ID
+     * @param actorId   评论者ID
+     * @param usernames 被提及的用户名（已转为小写并去重）
+     */
+    private record MentionTask(Long commentId, Long articleId, Long actorId, Set<String> usernames) {
+    }
+
+    /**
+     * 一条评论要写入的提及索引和通知
+     *
+     * @param commentId     评论ID
+     * @param mentions      提及索引行
+     * @param notifications 通知行
+     */
+    private record MentionRows(Long commentId, List<CommentMention> mentions, List<Notification> notifications) {
+    }
+}
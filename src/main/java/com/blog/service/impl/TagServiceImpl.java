@@ -5,6 +5,8 @@ import com.blog.entity.ArticleTag;
 import com.blog.entity.Tag;
 import com.blog.mapper.ArticleTagMapper;
 import com.blog.mapper.TagMapper;
+import com.blog.service.ArticleCacheService;
+import com.blog.service.TagIndexService;
 import com.blog.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,7 +14,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -27,6 +32,12 @@ public class TagServiceImpl implements TagService {
     @Autowired
     private ArticleTagMapper articleTagMapper;
 
+    @Autowired
+    private ArticleCacheService articleCacheService;
+
+    @Autowired
+    private TagIndexService tagIndexService;
+
     @Override
     public Tag getOrCreateTag(String tagName) {
         // 查询标签是否存在
@@ -61,11 +72,15 @@ public class TagServiceImpl implements TagService {
             articleTag.setArticleId(articleId);
             articleTag.setTagId(tag.getId());
             articleTagMapper.insert(articleTag);
+            tagIndexService.addArticle(tag, articleId);
 
             // 更新标签计数
             tag.setCount(tag.getCount() + 1);
             tagMapper.updateById(tag);
         }
+
+        // 标签变化后使文章详情缓存失效
+        articleCacheService.evict(articleId);
     }
 
     @Override
@@ -90,6 +105,40 @@ public class TagServiceImpl implements TagService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, List<String>> getArticleTagsMap(Collection<Long> articleIds) {
+        Map<Long, List<String>> result = new HashMap<>();
+        if (CollectionUtils.isEmpty(articleIds)) {
+            return result;
+        }
+
+        // 一次查询所有文章的标签关联
+        LambdaQueryWrapper<ArticleTag> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(ArticleTag::getArticleId, articleIds);
+        List<ArticleTag> articleTags = articleTagMapper.selectList(wrapper);
+
+        if (CollectionUtils.isEmpty(articleTags)) {
+            return result;
+        }
+
+        // 一次查询涉及到的全部标签
+        List<Long> tagIds = articleTags.stream()
+                .map(ArticleTag::getTagId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, String> tagNames = tagMapper.selectBatchIds(tagIds).stream()
+                .collect(Collectors.toMap(Tag::getId, Tag::getName));
+
+        // 在内存中按文章分组
+        for (ArticleTag articleTag : articleTags) {
+            String tagName = tagNames.get(articleTag.getTagId());
+            if (tagName != null) {
+                result.computeIfAbsent(articleTag.getArticleId(), k -> new ArrayList<>()).add(tagName);
+            }
+        }
+        return result;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void removeArticleTags(Long articleId) {
@@ -113,5 +162,11 @@ public class TagServiceImpl implements TagService {
 
         // 删除文章-标签关联
         articleTagMapper.delete(wrapper);
+        tagIndexService.removeArticle(articleTags.stream()
+                .map(ArticleTag::getTagId)
+                .collect(Collectors.toList()), articleId);
+
+        // 标签变化后使文章详情缓存失效
+        articleCacheService.evict(articleId);
     }
 }
@@ -1,21 +1,36 @@
 package com.blog.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.blog.dto.AuthTokenVO;
 import com.blog.dto.UserDTO;
 import com.blog.dto.UserLoginDTO;
 import com.blog.dto.UserRegisterDTO;
 import com.blog.entity.User;
 import com.blog.exception.BusinessException;
 import com.blog.mapper.UserMapper;
+import com.blog.service.DashboardSnapshotService;
+import com.blog.service.PasswordHashingService;
+import com.blog.service.RefreshTokenService;
+import com.blog.service.SiteTotalsService;
+import com.blog.service.StatisticsService;
+import com.blog.service.TokenRevocationService;
+import com.blog.service.UserCacheService;
 import com.blog.service.UserService;
 import com.blog.util.JwtUtil;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 用户服务实现类
@@ -27,11 +42,32 @@ public class UserServiceImpl implements UserService {
     private UserMapper userMapper;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private SiteTotalsService siteTotalsService;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Override
     public UserDTO register(UserRegisterDTO registerDTO) {
         // 1. 参数校验
@@ -53,10 +89,10 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException("用户名已存在");
         }
 
-        // 3. 创建用户
+        // 3. 创建用户（密码在哈希线程池中计算，不占用数据库连接）
         User user = new User();
         user.setUsername(registerDTO.getUsername());
-        user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
+        user.setPassword(passwordHashingService.encode(registerDTO.getPassword()));
         user.setEmail(registerDTO.getEmail());
         user.setNickname(StringUtils.hasText(registerDTO.getNickname())
                 ? registerDTO.getNickname()
@@ -65,18 +101,23 @@ public class UserServiceImpl implements UserService {
         user.setIsBanned(0);
         user.setIsDeleted(0);
 
-        // 4. 保存到数据库
-        int result = userMapper.insert(user);
-        if (result == 0) {
-            throw new BusinessException("注册失败");
-        }
+        // 4. 保存到数据库（与全站用户数在同一事务中）
+        transactionTemplate.executeWithoutResult(status -> {
+            int result = userMapper.insert(user);
+            if (result == 0) {
+                throw new BusinessException("注册失败");
+            }
+            siteTotalsService.addUsers(1);
+        });
+        statisticsService.markDirty(LocalDate.now());
+        dashboardSnapshotService.markChanged();
 
         // 5. 返回用户信息
         return convertToDTO(user);
     }
 
     @Override
-    public String login(UserLoginDTO loginDTO) {
+    public AuthTokenVO login(UserLoginDTO loginDTO) {
         // 1. 参数校验
         if (!StringUtils.hasText(loginDTO.getUsername())) {
             throw new BusinessException("用户名不能为空");
@@ -101,22 +142,74 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException("账号已被删除");
         }
 
-        // 4. 验证密码
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+        // 4. 验证密码（在哈希线程池中计算，繁忙时快速拒绝），哈希成本过低时在后台升级
+        if (!passwordHashingService.matches(loginDTO.getPassword(), user.getPassword())) {
             throw new BusinessException("用户名或密码错误");
         }
+        passwordHashingService.rehashIfNeeded(loginDTO.getPassword(), user.getPassword(),
+                newPassword -> userMapper.updatePasswordIfUnchanged(user.getId(), user.getPassword(), newPassword));
 
-        // 5. 生成JWT Token
-        return jwtUtil.generateToken(user.getId(), user.getUsername(), user.getIsAdmin() == 1);
+        // 5. 生成访问令牌和新的刷新令牌家族
+        return buildAuthToken(convertToDTO(user), refreshTokenService.issue(user.getId()));
+    }
+
+    @Override
+    public AuthTokenVO refresh(String refreshToken) {
+        // 1. 轮换刷新令牌（无效、过期或重复使用时抛出401）
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+        // 2. 按当前用户状态签发访问令牌（角色变化在下次刷新时生效）
+        UserDTO user;
+        try {
+            user = getUserById(rotation.userId());
+        } catch (BusinessException e) {
+            refreshTokenService.revokeAllForUser(rotation.userId());
+            throw new BusinessException(401, "账号已被删除");
+        }
+        if (Boolean.TRUE.equals(user.getIsBanned())) {
+            refreshTokenService.revokeAllForUser(rotation.userId());
+            throw new BusinessException(401, "账号已被禁言");
+        }
+        return buildAuthToken(user, rotation.refreshToken());
+    }
+
+    @Override
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private AuthTokenVO buildAuthToken(UserDTO user, String refreshToken) {
+        AuthTokenVO result = new AuthTokenVO();
+        result.setToken(jwtUtil.generateToken(user.getId(), user.getUsername(), user.getIsAdmin()));
+        result.setRefreshToken(refreshToken);
+        result.setExpiresIn(jwtUtil.getExpirationMs() / 1000);
+        result.setUser(user);
+        return result;
     }
 
     @Override
     public UserDTO getUserById(Long userId) {
-        User user = userMapper.selectById(userId);
+        UserDTO user = userCacheService.get(userId, id -> convertToDTO(userMapper.selectById(id)));
         if (user == null) {
             throw new BusinessException("用户不存在");
         }
-        return convertToDTO(user);
+        return user;
+    }
+
+    @Override
+    public Map<Long, UserDTO> getUsersByIds(Collection<Long> userIds) {
+        if (CollectionUtils.isEmpty(userIds)) {
+            return new HashMap<>();
+        }
+
+        // 命中缓存的直接返回，未命中的一次批量查询
+        return userCacheService.getAll(userIds, missingIds -> {
+            Map<Long, UserDTO> loaded = new HashMap<>();
+            for (User user : userMapper.selectBatchIds(missingIds)) {
+                loaded.put(user.getId(), convertToDTO(user));
+            }
+            return loaded;
+        });
     }
 
     @Override
@@ -127,6 +220,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void banUser(Long userId, Boolean isBanned) {
         User user = userMapper.selectById(userId);
         if (user == null) {
@@ -138,21 +232,38 @@ public class UserServiceImpl implements UserService {
         if (result == 0) {
             throw new BusinessException("操作失败");
         }
+        userCacheService.evict(userId);
+        if (isBanned) {
+            // 已签发的Token立即失效
+            tokenRevocationService.revokeAll(userId);
+        }
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void deleteUser(Long userId) {
         User user = userMapper.selectById(userId);
         if (user == null) {
             throw new BusinessException("用户不存在");
         }
 
-        user.setIsDeleted(1);
-        user.setDeletedAt(LocalDateTime.now());
-        int result = userMapper.updateById(user);
+        // 逻辑删除（updateById不会更新@TableLogic字段，需显式设置）
+        LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(User::getId, userId)
+                .set(User::getIsDeleted, 1)
+                .set(User::getDeletedAt, LocalDateTime.now());
+        int result = userMapper.update(null, updateWrapper);
         if (result == 0) {
             throw new BusinessException("删除失败");
         }
+        userCacheService.evict(userId);
+        tokenRevocationService.revokeAll(userId);
+        if (user.getCreatedAt() != null) {
+            // 新用户数不含已删除用户，注册当天的统计需要重新计算
+            statisticsService.markDirty(user.getCreatedAt().toLocalDate());
+        }
+        siteTotalsService.addUsers(-1);
+        dashboardSnapshotService.markChanged();
     }
 
     @Override
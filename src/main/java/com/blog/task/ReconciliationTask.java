@@ -0,0 +1,54 @@
+package com.blog.task;
+
+import com.blog.exception.BusinessException;
+import com.blog.service.CounterReconciliationService;
+import com.blog.service.SiteTotalsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据核对定时任务
+ * 定期将维护的累计计数与源表核对，发现偏差时修复
+ */
+@Slf4j
+@Component
+public class ReconciliationTask {
+
+    @Autowired
+    private SiteTotalsService siteTotalsService;
+
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
+
+    /**
+     * 每小时核对一次全站累计计数
+     * 0 15 * * * ? 表示每小时的第15分钟执行
+     */
+    @Scheduled(cron = "${reconcile.site-totals-cron:0 15 * * * ?}")
+    public void reconcileSiteTotals() {
+        try {
+            siteTotalsService.reconcile();
+        } catch (Exception e) {
+            log.error("全站累计计数核对失败", e);
+        }
+    }
+
+    /**
+     * 每天核对一次文章点赞/收藏/评论计数和标签关联文章数
+     * 0 30 3 * * ? 表示每天凌晨3点30分执行
+     * 核对分段执行并按比例休眠，耗时较长，在核对服务自己的线程中执行，不占用定时任务线程
+     */
+    @Scheduled(cron = "${reconcile.counters-cron:0 30 3 * * ?}")
+    public void reconcileCounters() {
+        try {
+            counterReconciliationService.startAsync();
+            log.info("========== 冗余计数核对任务已开始 ==========");
+        } catch (BusinessException e) {
+            log.info("计数核对正在执行中，跳过本次核对");
+        } catch (Exception e) {
+            log.error("========== 冗余计数核对任务启动失败 ==========", e);
+        }
+    }
+}
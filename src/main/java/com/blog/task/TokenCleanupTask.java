@@ -0,0 +1,44 @@
+package com.blog.task;
+
+import com.blog.service.RefreshTokenService;
+import com.blog.service.TokenRevocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 认证数据清理定时任务
+ * 定期清理已经不再起作用的Token吊销记录和已过期的刷新令牌
+ */
+@Slf4j
+@Component
+public class TokenCleanupTask {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    /**
+     * 每天清理一次所有Token都已过期的吊销截止时间和已过期的刷新令牌
+     * 0 0 4 * * ? 表示每天凌晨4点执行
+     */
+    @Scheduled(cron = "${auth.cleanup-cron:0 0 4 * * ?}")
+    public void purgeExpired() {
+        try {
+            int deleted = tokenRevocationService.purgeExpired();
+            log.info("Token吊销记录清理完成 - 删除: {}", deleted);
+        } catch (Exception e) {
+            log.error("Token吊销记录清理失败", e);
+        }
+
+        try {
+            int deleted = refreshTokenService.purgeExpired();
+            log.info("过期刷新令牌清理完成 - 删除: {}", deleted);
+        } catch (Exception e) {
+            log.error("过期刷新令牌清理失败", e);
+        }
+    }
+}
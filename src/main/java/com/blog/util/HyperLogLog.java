@@ -0,0 +1,188 @@
+package com.blog.util;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * HyperLogLog基数估计
+ * 用固定大小的寄存器数组估计集合中不同元素的个数，标准误差约为 1.04 / sqrt(2^precision)，
+ * 两个草图按寄存器取最大值即可合并（并集），适合按天保存后再合并计算周、月UV。
+ * 非线程安全，并发访问需由调用方同步。
+ */
+public final class HyperLogLog {
+
+    /**
+     * 默认精度：16384个寄存器，标准误差约0.81%
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 18;
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     */
+    public void add(String value) {
+        addHash(MurmurHash.hash64(value));
+    }
+
+    /**
+     * 添加元素的64位哈希值
+     *
+     * @param hash 哈希值
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // 低位补1，保证rank不超过 64 - precision + 1
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * 合并另一个草图（并集）
+     *
+     * @param other 精度相同的草图
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision mismatch: " + precision + " vs " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * 估计不同元素个数
+     *
+     * @return 基数估计值
+     */
+    public long cardinality() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        // 小基数时使用线性计数修正
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 序列化为压缩字节（第一个字节为精度，其后为deflate压缩的寄存器）
+     * 访客较少时寄存器大多为0，压缩后只有几百字节
+     *
+     * @return 字节数组
+     */
+    public byte[] toBytes() {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(registers);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(256);
+            output.write(precision);
+            byte[] chunk = new byte[1024];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                output.write(chunk, 0, length);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 从toBytes的结果还原草图
+     *
+     * @param bytes 字节数组
+     * @return 草图
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) {
+            throw new IllegalArgumentException("invalid sketch bytes");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1, bytes.length - 1);
+            int offset = 0;
+            while (offset < sketch.registers.length && !inflater.finished()) {
+                int length = inflater.inflate(sketch.registers, offset, sketch.registers.length - offset);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += length;
+            }
+            if (offset != sketch.registers.length) {
+                throw new IllegalArgumentException("truncated sketch bytes");
+            }
+            return sketch;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("invalid sketch bytes", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
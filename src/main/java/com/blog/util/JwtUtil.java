@@ -1,24 +1,45 @@
 package com.blog.util;
 
+import com.blog.security.JwtPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * JWT工具类
+ * 签名密钥和解析器在启动时构建一次（线程安全，可复用）；
+ * 验证一次完成签名校验、过期检查和声明提取，返回JwtPrincipal。
+ * 可选的已验证Token缓存按Token的SHA-256摘要保存验证结果，同一Token的重复请求跳过签名校验和JSON解析。
  */
 @Component
 public class JwtUtil {
 
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -26,10 +47,45 @@ public class JwtUtil {
     private Long expiration;
 
     /**
-     * 获取密钥
+     * 已验证Token缓存的最大条数（0表示不缓存）
+     */
+    @Value("${jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize;
+
+    /**
+     * 已验证Token缓存的有效时间（秒），同时受Token自身过期时间限制
+     */
+    @Value("${jwt.verified-cache.ttl-seconds:60}")
+    private long verifiedCacheTtlSeconds;
+
+    private SecretKey secretKey;
+
+    private JwtParser parser;
+
+    /**
+     * Token摘要 → 验证结果
+     */
+    private Cache<ByteBuffer, JwtPrincipal> verifiedCache;
+
+    @PostConstruct
+    public void init() {
+        secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(secretKey).build();
+        if (verifiedCacheMaximumSize > 0 && verifiedCacheTtlSeconds > 0) {
+            verifiedCache = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaximumSize)
+                    .expireAfterWrite(Duration.ofSeconds(verifiedCacheTtlSeconds))
+                    .build();
+        }
+    }
+
+    /**
+     * 获取访问令牌有效期
+     *
+     * @return 有效期（毫秒）
      */
-    private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public long getExpirationMs() {
+        return expiration;
     }
 
     /**
@@ -64,10 +120,39 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSecretKey(), SignatureAlgorithm.HS256)
+                .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * 验证Token并提取用户身份（签名、过期检查和声明提取一次完成）
+     *
+     * @param token Token字符串
+     * @return 用户身份，Token无效或已过期时返回null
+     */
+    public JwtPrincipal verify(String token) {
+        long now = System.currentTimeMillis();
+        if (verifiedCache == null) {
+            return parse(token);
+        }
+
+        ByteBuffer digest = digest(token);
+        JwtPrincipal cached = verifiedCache.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpiredAt(now)) {
+                return cached;
+            }
+            verifiedCache.invalidate(digest);
+            return null;
+        }
+
+        JwtPrincipal principal = parse(token);
+        if (principal != null) {
+            verifiedCache.put(digest, principal);
+        }
+        return principal;
+    }
+
     /**
      * 从Token中获取用户名
      *
@@ -85,8 +170,7 @@ public class JwtUtil {
      * @return 用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return getClaimsFromToken(token).get("userId", Long.class);
     }
 
     /**
@@ -96,8 +180,7 @@ public class JwtUtil {
      * @return 是否管理员
      */
     public Boolean getIsAdminFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("isAdmin", Boolean.class);
+        return getClaimsFromToken(token).get("isAdmin", Boolean.class);
     }
 
     /**
@@ -111,53 +194,48 @@ public class JwtUtil {
     }
 
     /**
-     * 从Token中获取Claims
+     * 验证Token（不检查用户名）
      *
      * @param token Token字符串
-     * @return Claims
+     * @return true=有效, false=无效
      */
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Boolean validateToken(String token) {
+        return verify(token) != null;
     }
 
     /**
-     * 验证Token是否过期
+     * 从Token中获取Claims（复用启动时构建的解析器）
      *
      * @param token Token字符串
-     * @return true=已过期, false=未过期
+     * @return Claims
      */
-    private Boolean isTokenExpired(String token) {
-        Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private Claims getClaimsFromToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * 验证Token
-     *
-     * @param token    Token字符串
-     * @param username 用户名
-     * @return true=有效, false=无效
+     * 解析并验证Token（解析器会拒绝签名错误和已过期的Token）
      */
-    public Boolean validateToken(String token, String username) {
-        String tokenUsername = getUsernameFromToken(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+    private JwtPrincipal parse(String token) {
+        try {
+            Claims claims = getClaimsFromToken(token);
+            Long userId = claims.get("userId", Long.class);
+            Date issuedAt = claims.getIssuedAt();
+            Date expiresAt = claims.getExpiration();
+            if (userId == null || expiresAt == null) {
+                return null;
+            }
+            return new JwtPrincipal(userId, claims.getSubject(), Boolean.TRUE.equals(claims.get("isAdmin", Boolean.class)),
+                    issuedAt != null ? issuedAt.getTime() : 0L, expiresAt.getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
-     * 验证Token（不检查用户名）
-     *
-     * @param token Token字符串
-     * @return true=有效, false=无效
+     * Token的SHA-256摘要（缓存键不保存Token原文）
      */
-    public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+    private ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
     }
 }
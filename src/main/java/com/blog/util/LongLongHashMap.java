@@ -0,0 +1,143 @@
+package com.blog.util;
+
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * 不可变的 long → long 开放寻址哈希表
+ * 键值存放在两个基本类型数组中（无装箱、无节点对象），线性探测，装载因子不超过0.75。
+ * 修改操作返回新实例（写时复制），已发布的实例可被任意线程无锁读取。
+ * 键0保留为空槽标记，不能作为键。
+ */
+public final class LongLongHashMap {
+
+    private static final long EMPTY_KEY = 0L;
+
+    private static final int MIN_CAPACITY = 4;
+
+    public static final LongLongHashMap EMPTY = new LongLongHashMap(MIN_CAPACITY);
+
+    private final long[] keys;
+
+    private final long[] values;
+
+    private final int mask;
+
+    private int size;
+
+    private LongLongHashMap(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 查找键对应的值
+     *
+     * @param key          键
+     * @param defaultValue 键不存在时返回的值
+     * @return 值
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY_KEY) {
+            return defaultValue;
+        }
+        int index = slot(key);
+        while (true) {
+            long current = keys[index];
+            if (current == key) {
+                return values[index];
+            }
+            if (current == EMPTY_KEY) {
+                return defaultValue;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * @return 键值对数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 两个数组占用的字节数
+     */
+    public long sizeInBytes() {
+        return (long) keys.length * Long.BYTES * 2;
+    }
+
+    /**
+     * 返回写入了updates后的新实例（已有的键被覆盖）
+     *
+     * @param updates 要写入的键值对
+     * @return 新实例
+     */
+    public LongLongHashMap withAll(Map<Long, Long> updates) {
+        LongLongHashMap result = new LongLongHashMap(capacityFor(size + updates.size()));
+        result.copyFrom(this, value -> true);
+        updates.forEach(result::put);
+        return result;
+    }
+
+    /**
+     * 返回只保留值满足条件的键值对的新实例（容量按保留的数量收缩）
+     *
+     * @param keep 值的保留条件
+     * @return 新实例
+     */
+    public LongLongHashMap retainValues(LongPredicate keep) {
+        int retained = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY && keep.test(values[i])) {
+                retained++;
+            }
+        }
+        LongLongHashMap result = new LongLongHashMap(capacityFor(retained));
+        result.copyFrom(this, keep);
+        return result;
+    }
+
+    private void copyFrom(LongLongHashMap source, LongPredicate keep) {
+        for (int i = 0; i < source.keys.length; i++) {
+            if (source.keys[i] != EMPTY_KEY && keep.test(source.values[i])) {
+                put(source.keys[i], source.values[i]);
+            }
+        }
+    }
+
+    /**
+     * 仅在构建新实例时调用（实例发布前）
+     */
+    private void put(long key, long value) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("key 0 is reserved");
+        }
+        int index = slot(key);
+        while (keys[index] != EMPTY_KEY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        if (keys[index] == EMPTY_KEY) {
+            keys[index] = key;
+            size++;
+        }
+        values[index] = value;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * 容纳entries个键值对（装载因子0.75）所需的2的幂容量
+     */
+    private static int capacityFor(int entries) {
+        long needed = Math.max(MIN_CAPACITY, (entries * 4L + 2) / 3 + 1);
+        if (needed > (1 << 30)) {
+            throw new IllegalStateException("too many entries: " + entries);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
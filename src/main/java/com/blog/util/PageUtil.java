@@ -0,0 +1,130 @@
+package com.blog.util;
+
+import com.blog.dto.CursorPage;
+import com.blog.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 分页工具类
+ * 负责页码分页的深度限制和游标分页的游标编解码
+ */
+public final class PageUtil {
+
+    /**
+     * 每页最大数量
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 页码分页允许的最大偏移量，更深的页需要使用游标分页
+     */
+    public static final int MAX_OFFSET = 10000;
+
+    private PageUtil() {
+    }
+
+    /**
+     * 校验页码分页参数
+     *
+     * @param page     页码
+     * @param pageSize 每页数量
+     */
+    public static void checkPage(Integer page, Integer pageSize) {
+        if (page == null || page < 1) {
+            throw new BusinessException("页码必须大于0");
+        }
+        checkPageSize(pageSize);
+        if ((long) (page - 1) * pageSize > MAX_OFFSET) {
+            throw new BusinessException("页码过深，请使用游标分页");
+        }
+    }
+
+    /**
+     * 校验每页数量
+     *
+     * @param pageSize 每页数量
+     */
+    public static void checkPageSize(Integer pageSize) {
+        if (pageSize == null || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BusinessException("每页数量必须在1-" + MAX_PAGE_SIZE + "之间");
+        }
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param createdAt 最后一条记录的创建时间
+     * @param id        最后一条记录的ID
+     * @return 不透明的游标字符串
+     */
+    public static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标位置，cursor为空时返回null（表示第一页）
+     */
+    public static Cursor decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (Exception e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 将多查询一条的结果转换为游标分页
+     * 调用方按 (created_at DESC, id DESC) 查询 pageSize + 1 条，多出的一条仅用于判断是否还有下一页
+     *
+     * @param rows      查询结果（最多pageSize + 1条）
+     * @param pageSize  每页数量
+     * @param createdAt 取记录创建时间
+     * @param id        取记录ID
+     * @param converter 将当前页记录转换为返回对象
+     * @return 游标分页结果
+     */
+    public static <E, T> CursorPage<T> toCursorPage(List<E> rows, int pageSize,
+                                                    Function<E, LocalDateTime> createdAt, Function<E, Long> id,
+                                                    Function<List<E>, List<T>> converter) {
+        CursorPage<T> result = new CursorPage<>();
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        result.setRecords(converter.apply(pageRows));
+        result.setHasMore(hasMore);
+        if (hasMore) {
+            E last = pageRows.get(pageRows.size() - 1);
+            result.setNextCursor(encodeCursor(createdAt.apply(last), id.apply(last)));
+        }
+        return result;
+    }
+
+    /**
+     * 游标位置：(创建时间, ID)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+
+        private final LocalDateTime createdAt;
+
+        private final Long id;
+    }
+}
@@ -84,13 +84,18 @@ CREATE TABLE `comment` (
   `id` bigint NOT NULL AUTO_INCREMENT COMMENT '评论ID',
   `article_id` bigint NOT NULL COMMENT '文章ID',
   `user_id` bigint COMMENT '评论者ID(NULL表示匿名)',
+  `parent_id` bigint DEFAULT NULL COMMENT '回复的评论ID(NULL表示顶层评论)',
+  `root_id` bigint DEFAULT NULL COMMENT '所属顶层评论ID(NULL表示顶层评论)',
+  `path` varchar(255) NOT NULL DEFAULT '' COMMENT '物化路径(祖先到自身的ID，定长分段，按路径排序即为楼中楼展示顺序)',
+  `depth` int NOT NULL DEFAULT 0 COMMENT '层级(顶层为0)',
+  `reply_count` int NOT NULL DEFAULT 0 COMMENT '子树中的回复数',
   `content` text NOT NULL COMMENT '评论内容',
-  `mentions` json COMMENT '@提及的用户列表',
   `is_deleted` tinyint DEFAULT 0 COMMENT '是否删除 0=否 1=是',
   `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  KEY `idx_article_id` (`article_id`),
+  KEY `idx_article_root_created` (`article_id`, `root_id`, `created_at`),
+  KEY `idx_root_path` (`root_id`, `path`),
   KEY `idx_user_id` (`user_id`),
   KEY `idx_created_at` (`created_at`),
   CONSTRAINT `fk_comment_article` FOREIGN KEY (`article_id`) REFERENCES `article` (`id`) ON DELETE CASCADE,
@@ -108,6 +113,7 @@ CREATE TABLE `user_like` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_user_article` (`user_id`, `article_id`),
   KEY `idx_article_id` (`article_id`),
+  KEY `idx_user_created` (`user_id`, `created_at`),
   CONSTRAINT `fk_like_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_like_article` FOREIGN KEY (`article_id`) REFERENCES `article` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户点赞表';
@@ -123,6 +129,7 @@ CREATE TABLE `user_collect` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_user_article` (`user_id`, `article_id`),
   KEY `idx_article_id` (`article_id`),
+  KEY `idx_user_created` (`user_id`, `created_at`),
   CONSTRAINT `fk_collect_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_collect_article` FOREIGN KEY (`article_id`) REFERENCES `article` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户收藏表';
@@ -152,15 +159,118 @@ CREATE TABLE `site_statistics` (
   `pv` int DEFAULT 0 COMMENT '页面浏览量',
   `uv` int DEFAULT 0 COMMENT '独立访客数',
   `new_users` int DEFAULT 0 COMMENT '新注册用户数',
+  `uv_sketch` blob COMMENT 'UV的HyperLogLog草图（压缩）',
   `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_date` (`statistic_date`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='网站统计表';
 
+-- =============================================
+-- 10. 文章UV草图表 (article_uv_sketch)
+-- =============================================
+CREATE TABLE `article_uv_sketch` (
+  `article_id` bigint NOT NULL COMMENT '文章ID',
+  `statistic_date` date NOT NULL COMMENT '统计日期',
+  `uv` int DEFAULT 0 COMMENT '独立访客数（草图估计值）',
+  `sketch` blob NOT NULL COMMENT 'UV的HyperLogLog草图（压缩）',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`article_id`, `statistic_date`),
+  KEY `idx_statistic_date` (`statistic_date`),
+  CONSTRAINT `fk_article_uv_article` FOREIGN KEY (`article_id`) REFERENCES `article` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文章UV草图表';
+
+-- =============================================
+-- 11. 全站累计计数表 (site_totals)
+-- 只有一行（id=1），随业务写入增量维护，定时与源表核对
+-- =============================================
+CREATE TABLE `site_totals` (
+  `id` int NOT NULL COMMENT '固定为1',
+  `total_articles` bigint NOT NULL DEFAULT 0 COMMENT '文章总数（未删除）',
+  `total_users` bigint NOT NULL DEFAULT 0 COMMENT '用户总数（未删除）',
+  `total_comments` bigint NOT NULL DEFAULT 0 COMMENT '评论总数（未删除）',
+  `total_views` bigint NOT NULL DEFAULT 0 COMMENT '总浏览量（未删除文章）',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='全站累计计数表';
+
+-- =============================================
+-- 12. 评论提及表 (comment_mention)
+-- 评论中@提及的用户（已解析为用户ID），由通知扇出线程异步写入
+-- =============================================
+CREATE TABLE `comment_mention` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `comment_id` bigint NOT NULL COMMENT '评论ID',
+  `user_id` bigint NOT NULL COMMENT '被提及的用户ID',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_comment_user` (`comment_id`, `user_id`),
+  KEY `idx_user_comment` (`user_id`, `comment_id`),
+  CONSTRAINT `fk_mention_comment` FOREIGN KEY (`comment_id`) REFERENCES `comment` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_mention_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='评论提及表';
+
+-- =============================================
+-- 13. 通知表 (notification)
+-- 每个用户的通知收件箱，按 (user_id, created_at) 游标分页
+-- =============================================
+CREATE TABLE `notification` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '通知ID',
+  `user_id` bigint NOT NULL COMMENT '接收者ID',
+  `type` varchar(20) NOT NULL COMMENT '通知类型 MENTION=评论中提及',
+  `actor_id` bigint DEFAULT NULL COMMENT '触发者ID',
+  `article_id` bigint DEFAULT NULL COMMENT '相关文章ID',
+  `comment_id` bigint DEFAULT NULL COMMENT '相关评论ID',
+  `is_read` tinyint NOT NULL DEFAULT 0 COMMENT '是否已读 0=否 1=是',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_user_created` (`user_id`, `created_at`),
+  KEY `idx_user_read` (`user_id`, `is_read`),
+  CONSTRAINT `fk_notification_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='通知表';
+
+-- =============================================
+-- 14. Token吊销表 (token_revocation)
+-- 每个用户一行：签发时间早于revoked_before的Token全部失效（禁言、删除用户时写入）
+-- =============================================
+CREATE TABLE `token_revocation` (
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `revoked_before` datetime NOT NULL COMMENT '吊销截止时间（签发时间早于该时间的Token无效）',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`user_id`),
+  KEY `idx_updated_at` (`updated_at`),
+  KEY `idx_revoked_before` (`revoked_before`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Token吊销表';
+
+-- =============================================
+-- 15. 刷新令牌表 (refresh_token)
+-- 只保存令牌的SHA-256摘要；每次刷新作废旧令牌并在同一家族中签发新令牌，已作废的令牌再次使用时整个家族失效
+-- =============================================
+CREATE TABLE `refresh_token` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `family_id` char(32) NOT NULL COMMENT '令牌家族ID（一次登录产生的轮换链）',
+  `token_hash` char(64) NOT NULL COMMENT '令牌SHA-256摘要（十六进制）',
+  `expires_at` datetime NOT NULL COMMENT '过期时间',
+  `used_at` datetime DEFAULT NULL COMMENT '轮换时间（NULL表示未使用）',
+  `revoked` tinyint NOT NULL DEFAULT 0 COMMENT '是否吊销 0=否 1=是',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_token_hash` (`token_hash`),
+  KEY `idx_family_id` (`family_id`),
+  KEY `idx_user_id` (`user_id`),
+  KEY `idx_expires_at` (`expires_at`),
+  CONSTRAINT `fk_refresh_token_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='刷新令牌表';
+
 -- =============================================
 -- 初始化管理员账号
 -- 密码: admin123 (BCrypt加密后的值)
 -- =============================================
 INSERT INTO `user` (`username`, `password`, `email`, `nickname`, `is_admin`)
 VALUES ('admin', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iAt6Z5E', 'admin@blog.com', '站长', 1);
+
+-- =============================================
+-- 初始化全站累计计数
+-- =============================================
+INSERT INTO `site_totals` (`id`, `total_users`) VALUES (1, 1);
@@ -0,0 +1,111 @@
+/**
+ * 访问令牌自动刷新
+ * 访问令牌有效期较短：带Authorization头的API请求在令牌即将过期时先刷新，
+ * 收到401/403时刷新一次后重试。同一时刻只有一个刷新请求（多个请求共享结果），
+ * 其他标签页已经轮换过刷新令牌时直接使用localStorage中的新令牌。
+ */
+(function () {
+    const originalFetch = window.fetch.bind(window);
+    // 距离过期不足该时间（毫秒）时提前刷新
+    const REFRESH_AHEAD_MS = 30000;
+    let refreshing = null;
+
+    function tokenExpiresAt(token) {
+        try {
+            const payload = JSON.parse(atob(token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')));
+            return payload.exp * 1000;
+        } catch (e) {
+            return 0;
+        }
+    }
+
+    function clearSession() {
+        localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
+        localStorage.removeItem('user');
+    }
+
+    async function doRefresh() {
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (!refreshToken) {
+            return false;
+        }
+        try {
+            const response = await originalFetch('/api/auth/refresh', {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken })
+            });
+            const result = await response.json();
+            if (result.code === 200) {
+                localStorage.setItem('token', result.data.token);
+                localStorage.setItem('refreshToken', result.data.refreshToken);
+                localStorage.setItem('user', JSON.stringify(result.data.user));
+                return true;
+            }
+        } catch (e) {
+            console.error('刷新令牌失败:', e);
+            return false;
+        }
+        // 其他标签页已经完成轮换
+        if (localStorage.getItem('refreshToken') !== refreshToken) {
+            return true;
+        }
+        clearSession();
+        return false;
+    }
+
+    /**
+     * 刷新访问令牌（并发调用共享同一次刷新）
+     */
+    window.refreshAccessToken = function () {
+        if (!refreshing) {
+            refreshing = doRefresh().finally(() => { refreshing = null; });
+        }
+        return refreshing;
+    };
+
+    /**
+     * 退出登录时吊销刷新令牌
+     */
+    window.revokeSession = function () {
+        const refreshToken = localStorage.getItem('refreshToken');
+        localStorage.removeItem('refreshToken');
+        if (refreshToken) {
+            originalFetch('/api/auth/logout', {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken }),
+                keepalive: true
+            }).catch(() => {});
+        }
+    };
+
+    window.fetch = async function (input, init = {}) {
+        const url = typeof input === 'string' ? input : input.url;
+        const headers = new Headers(init.headers || {});
+        if (!url.startsWith('/api/') || url.startsWith('/api/auth/') || !headers.has('Authorization')) {
+            return originalFetch(input, init);
+        }
+
+        const token = localStorage.getItem('token');
+        if (token && tokenExpiresAt(token) - Date.now() < REFRESH_AHEAD_MS) {
+            await window.refreshAccessToken();
+        }
+        const send = () => {
+            const current = localStorage.getItem('token');
+            if (current) {
+                headers.set('Authorization', `Bearer ${current}`);
+            } else {
+                headers.delete('Authorization');
+            }
+            return originalFetch(input, { ...init, headers });
+        };
+
+        const response = await send();
+        if ((response.status === 401 || response.status === 403) && await window.refreshAccessToken()) {
+            return send();
+        }
+        return response;
+    };
+})();
@@ -0,0 +1,95 @@
+package com.blog.benchmark;
+
+import com.blog.security.JwtPrincipal;
+import com.blog.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT认证过滤器每个请求的验证开销
+ * legacyFourParses：原实现，每次调用重建密钥和解析器，一个请求解析验证4次；
+ * verifyUncached：复用解析器，一次解析；verifyCached：同一Token命中已验证缓存。
+ * 运行：mvn test-compile 后以本类的main方法启动（测试类路径）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "06b5023bcbf1cceaf2e6206bade2c7de";
+
+    private JwtUtil uncached;
+
+    private JwtUtil cached;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        uncached = create(0);
+        cached = create(10000);
+        token = cached.generateToken(42L, "benchmark", false);
+    }
+
+    @Benchmark
+    public void legacyFourParses(Blackhole blackhole) {
+        // validateToken → getUsernameFromToken → getUserIdFromToken → getIsAdminFromToken
+        blackhole.consume(legacyClaims(token).getExpiration().before(new Date()));
+        blackhole.consume(legacyClaims(token).getSubject());
+        blackhole.consume(legacyClaims(token).get("userId", Long.class));
+        blackhole.consume(legacyClaims(token).get("isAdmin", Boolean.class));
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return cached.verify(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static JwtUtil create(long cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 604800000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaximumSize", cacheSize);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheTtlSeconds", 60L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
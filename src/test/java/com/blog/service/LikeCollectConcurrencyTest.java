@@ -0,0 +1,153 @@
+package com.blog.service;
+
+import com.blog.entity.Article;
+import com.blog.exception.BusinessException;
+import com.blog.mapper.ArticleMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 点赞收藏并发测试
+ * 在H2（MySQL兼容模式）上并发执行大量点赞/收藏切换，验证文章计数始终与记录数一致
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:like_collect;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:sql/like-collect-schema.sql",
+        "search.index-path=target/like-collect-search-index"
+})
+class LikeCollectConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static final int USERS = 50;
+
+    private static final int TOGGLES = 4000;
+
+    @Autowired
+    private LikeCollectService likeCollectService;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long articleId;
+
+    @BeforeEach
+    void createArticle() {
+        Article article = new Article();
+        article.setUserId(1L);
+        article.setTitle("并发测试");
+        article.setContent("content");
+        article.setViewCount(0);
+        article.setLikeCount(0);
+        article.setCollectCount(0);
+        article.setCommentCount(0);
+        article.setIsDeleted(0);
+        articleMapper.insert(article);
+        articleId = article.getId();
+    }
+
+    @Test
+    void concurrentTogglesKeepCountersExact() throws Exception {
+        // 用户数远少于切换次数，同一用户的切换会并发发生
+        runConcurrently(TOGGLES, i -> {
+            long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+            if (i % 2 == 0) {
+                likeCollectService.toggleLike(articleId, userId);
+            } else {
+                likeCollectService.toggleCollect(articleId, userId);
+            }
+        });
+
+        Article article = articleMapper.selectById(articleId);
+        assertEquals(countRows("user_like"), article.getLikeCount());
+        assertEquals(countRows("user_collect"), article.getCollectCount());
+    }
+
+    @Test
+    void concurrentDuplicateLikesCountOnce() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(TOGGLES, i -> {
+            long userId = i % USERS + 1;
+            try {
+                likeCollectService.likeArticle(articleId, userId);
+            } catch (BusinessException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(USERS, articleMapper.selectById(articleId).getLikeCount());
+        assertEquals(USERS, countRows("user_like"));
+        assertEquals(TOGGLES - USERS, rejected.get());
+
+        runConcurrently(TOGGLES, i -> {
+            try {
+                likeCollectService.unlikeArticle(articleId, (long) (i % USERS + 1));
+            } catch (BusinessException e) {
+                // 重复取消点赞
+            }
+        });
+        assertEquals(0, articleMapper.selectById(articleId).getLikeCount());
+        assertEquals(0, countRows("user_like"));
+    }
+
+    @Test
+    void likeMissingArticleLeavesNoRecord() {
+        assertThrows(BusinessException.class, () -> likeCollectService.likeArticle(-1L, 1L));
+        assertEquals(0, countRows("user_like"));
+    }
+
+    private int countRows(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE article_id = ?", Integer.class, articleId);
+        return count == null ? 0 : count;
+    }
+
+    private void runConcurrently(int tasks, IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index) throws Exception;
+    }
+}
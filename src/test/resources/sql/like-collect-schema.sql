@@ -0,0 +1,36 @@
+-- 点赞收藏并发测试用表结构（H2 MySQL兼容模式）
+
+CREATE TABLE IF NOT EXISTS `article` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL,
+  `title` varchar(255) NOT NULL,
+  `content` longtext NOT NULL,
+  `summary` varchar(500),
+  `cover_image` varchar(255),
+  `view_count` int DEFAULT 0,
+  `like_count` int DEFAULT 0,
+  `collect_count` int DEFAULT 0,
+  `comment_count` int DEFAULT 0,
+  `is_deleted` tinyint DEFAULT 0,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`)
+);
+
+CREATE TABLE IF NOT EXISTS `user_like` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL,
+  `article_id` bigint NOT NULL,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  CONSTRAINT `uk_like_user_article` UNIQUE (`user_id`, `article_id`)
+);
+
+CREATE TABLE IF NOT EXISTS `user_collect` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL,
+  `article_id` bigint NOT NULL,
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  CONSTRAINT `uk_collect_user_article` UNIQUE (`user_id`, `article_id`)
+);